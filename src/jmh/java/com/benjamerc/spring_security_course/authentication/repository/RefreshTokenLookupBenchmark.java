@@ -0,0 +1,138 @@
+package com.benjamerc.spring_security_course.authentication.repository;
+
+import com.benjamerc.spring_security_course.security.core.TokenUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.MessageDigest;
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RefreshTokenLookupBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"10000000"})
+    private int rows;
+
+    @Param({"jdbc:h2:file:./target/benchmarks/refresh-tokens;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"})
+    private String url;
+
+    @Param({"sa"})
+    private String username;
+
+    @Param({""})
+    private String password;
+
+    private Connection connection;
+
+    private PreparedStatement findByToken;
+
+    private PreparedStatement findById;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+
+        connection = DriverManager.getConnection(url, username, password);
+
+        try (Statement statement = connection.createStatement()) {
+
+            statement.execute("""
+                    create table if not exists refresh_token_lookup (
+                        id bigint primary key,
+                        token varchar(88) unique,
+                        secret_hash bytea
+                    )""");
+        }
+
+        populate();
+
+        findByToken = connection.prepareStatement("select id, secret_hash from refresh_token_lookup where token = ?");
+        findById = connection.prepareStatement("select token, secret_hash from refresh_token_lookup where id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+
+        connection.close();
+    }
+
+    @Benchmark
+    public long legacyLookupByHashedToken() throws SQLException {
+
+        long id = nextId();
+
+        findByToken.setString(1, TokenUtils.hashSHA256("legacy-" + id));
+
+        try (ResultSet resultSet = findByToken.executeQuery()) {
+
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    @Benchmark
+    public boolean selectorLookupByPrimaryKey() throws SQLException {
+
+        long id = nextId();
+        String rawToken = id + ".secret-" + id;
+
+        int separator = rawToken.indexOf('.');
+        byte[] secretHash = TokenUtils.sha256(rawToken.substring(separator + 1));
+
+        findById.setLong(1, Long.parseLong(rawToken, 0, separator, 10));
+
+        try (ResultSet resultSet = findById.executeQuery()) {
+
+            return resultSet.next() && MessageDigest.isEqual(resultSet.getBytes(2), secretHash);
+        }
+    }
+
+    private long nextId() {
+
+        return ThreadLocalRandom.current().nextLong(1, rows + 1L);
+    }
+
+    private void populate() throws SQLException {
+
+        long existing;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from refresh_token_lookup")) {
+
+            resultSet.next();
+            existing = resultSet.getLong(1);
+        }
+
+        if (existing >= rows) {
+            return;
+        }
+
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into refresh_token_lookup (id, token, secret_hash) values (?, ?, ?)")) {
+
+            for (long id = existing + 1; id <= rows; id++) {
+
+                insert.setLong(1, id);
+                insert.setString(2, TokenUtils.hashSHA256("legacy-" + id));
+                insert.setBytes(3, TokenUtils.sha256("secret-" + id));
+                insert.addBatch();
+
+                if (id % BATCH_SIZE == 0 || id == rows) {
+
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+
+        connection.setAutoCommit(true);
+    }
+}
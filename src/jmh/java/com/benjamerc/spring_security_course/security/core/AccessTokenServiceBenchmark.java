@@ -0,0 +1,105 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.repository.SigningKeyRepository;
+import com.benjamerc.spring_security_course.users.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessTokenServiceBenchmark {
+
+    private static final String SECRET_KEY = "YmVuY2htYXJrLXNlY3JldC1rZXktZm9yLWFjY2Vzcy10b2tlbi1zZXJ2aWNlLTAxMjM0NQ==";
+
+    private JwtProperties jwtProperties;
+
+    private AccessTokenService accessTokenService;
+
+    private User user;
+
+    @Param({"ES256", "EdDSA"})
+    private String algorithm;
+
+    private String token;
+
+    private String legacyToken;
+
+    @Setup
+    public void setup() {
+
+        jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey(SECRET_KEY);
+        jwtProperties.setExpiration(TimeUnit.HOURS.toMillis(1));
+
+        JwtProperties.Keys keys = new JwtProperties.Keys();
+        keys.setAlgorithm(algorithm);
+        keys.setRotationInterval(Duration.ofDays(7));
+        keys.setActivationDelay(Duration.ofMinutes(10));
+        keys.setRefreshInterval(Duration.ofMinutes(1));
+        keys.setLegacyHmacEnabled(true);
+        jwtProperties.setKeys(keys);
+
+        SigningKeyRing signingKeyRing = new SigningKeyRing(Mockito.mock(SigningKeyRepository.class), jwtProperties);
+        signingKeyRing.init();
+
+        accessTokenService = new AccessTokenService(jwtProperties, signingKeyRing);
+        accessTokenService.init();
+
+        user = User.builder()
+                .id(1L)
+                .username("benchmark@email.com")
+                .role(Role.USER)
+                .build();
+
+        token = accessTokenService.createAccessToken(user);
+
+        legacyToken = Jwts.builder()
+                .subject(user.getUsername())
+                .claim("id", user.getId())
+                .claim("role", user.getRole())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
+                .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
+                .compact();
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+
+        return accessTokenService.createAccessToken(user);
+    }
+
+    @Benchmark
+    public Claims validateAccessToken() {
+
+        return accessTokenService.validateAccessToken(token);
+    }
+
+    @Benchmark
+    public Claims validateLegacyHmacAccessToken() {
+
+        return accessTokenService.validateAccessToken(legacyToken);
+    }
+
+    @Benchmark
+    public Claims validateLegacyHmacAccessTokenWithPerCallKeyAndParser() {
+
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtProperties.getSecretKey().getBytes()))
+                .build()
+                .parseSignedClaims(legacyToken)
+                .getPayload();
+    }
+}
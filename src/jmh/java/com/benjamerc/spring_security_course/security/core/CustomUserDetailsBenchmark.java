@@ -0,0 +1,38 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.users.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomUserDetailsBenchmark {
+
+    @Param({"USER", "ADMIN"})
+    private Role role;
+
+    private CustomUserDetails userDetails;
+
+    @Setup
+    public void setup() {
+
+        userDetails = new CustomUserDetails(User.builder()
+                .id(1L)
+                .username("benchmark@email.com")
+                .role(role)
+                .build());
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+
+        return userDetails.getAuthorities();
+    }
+}
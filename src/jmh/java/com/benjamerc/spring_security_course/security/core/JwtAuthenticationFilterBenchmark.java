@@ -0,0 +1,139 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.repository.AccessTokenRevocationRepository;
+import com.benjamerc.spring_security_course.security.repository.SigningKeyRepository;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
+import com.benjamerc.spring_security_course.users.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET_KEY = "YmVuY2htYXJrLXNlY3JldC1rZXktZm9yLWFjY2Vzcy10b2tlbi1zZXJ2aWNlLTAxMjM0NQ==";
+
+    private static final FilterChain CHAIN = (request, response) -> {};
+
+    @Param({"ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtAuthenticationFilter cachedFilter;
+
+    private JwtAuthenticationFilter uncachedFilter;
+
+    private MockHttpServletRequest authenticatedRequest;
+
+    private MockHttpServletRequest anonymousRequest;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey(SECRET_KEY);
+        jwtProperties.setExpiration(TimeUnit.HOURS.toMillis(1));
+
+        JwtProperties.Keys keys = new JwtProperties.Keys();
+        keys.setAlgorithm(algorithm);
+        keys.setRotationInterval(Duration.ofDays(7));
+        keys.setActivationDelay(Duration.ofMinutes(10));
+        keys.setRefreshInterval(Duration.ofMinutes(1));
+        jwtProperties.setKeys(keys);
+
+        JwtProperties.Cache cache = new JwtProperties.Cache();
+        cache.setMaximumSize(10_000);
+        jwtProperties.setCache(cache);
+
+        SigningKeyRing signingKeyRing = new SigningKeyRing(Mockito.mock(SigningKeyRepository.class), jwtProperties);
+        signingKeyRing.init();
+
+        AccessTokenService accessTokenService = new AccessTokenService(jwtProperties, signingKeyRing);
+        accessTokenService.init();
+
+        AccessTokenRevocations accessTokenRevocations = new AccessTokenRevocations(
+                Mockito.mock(AccessTokenRevocationRepository.class),
+                jwtProperties,
+                Mockito.mock(ClusterEventBus.class),
+                new SimpleMeterRegistry()
+        );
+
+        cachedFilter = new JwtAuthenticationFilter(accessTokenService, new AccessTokenCache(jwtProperties, new SimpleMeterRegistry()), accessTokenRevocations);
+        uncachedFilter = new JwtAuthenticationFilter(accessTokenService, new NoOpAccessTokenCache(jwtProperties), accessTokenRevocations);
+
+        String token = accessTokenService.createAccessToken(User.builder()
+                .id(1L)
+                .username("benchmark@email.com")
+                .role(Role.USER)
+                .build());
+
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/user/me");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + token);
+
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/user/me");
+
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void cachedToken() throws ServletException, IOException {
+
+        cachedFilter.doFilterInternal(authenticatedRequest, response, CHAIN);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void uncachedToken() throws ServletException, IOException {
+
+        uncachedFilter.doFilterInternal(authenticatedRequest, response, CHAIN);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void missingToken() throws ServletException, IOException {
+
+        cachedFilter.doFilterInternal(anonymousRequest, response, CHAIN);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    private static class NoOpAccessTokenCache extends AccessTokenCache {
+
+        NoOpAccessTokenCache(JwtProperties jwtProperties) {
+
+            super(jwtProperties, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public CachedAuthentication get(String token) {
+
+            return null;
+        }
+
+        @Override
+        public CachedAuthentication put(String token, UsernamePasswordAuthenticationToken authentication, Date issuedAt, Date expiration) {
+
+            return new CachedAuthentication(token, authentication, issuedAt.toInstant(), expiration.toInstant());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({
+            "bcrypt:10",
+            "bcrypt:11",
+            "bcrypt:12",
+            "argon2:19456:2:1",
+            "argon2:47104:1:1",
+            "argon2:65536:3:1"
+    })
+    private String candidate;
+
+    private PasswordEncoder passwordEncoder;
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+
+        String[] parts = candidate.split(":");
+
+        passwordEncoder = switch (parts[0]) {
+            case "bcrypt" -> new BCryptPasswordEncoder(Integer.parseInt(parts[1]));
+            case "argon2" -> new Argon2PasswordEncoder(16, 32, Integer.parseInt(parts[3]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            default -> throw new IllegalArgumentException("Unknown candidate: " + candidate);
+        };
+
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String hash() {
+
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,35 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenUtilsBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setup() {
+
+        token = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String hashSHA256() {
+
+        return TokenUtils.hashSHA256(token);
+    }
+
+    @Benchmark
+    public byte[] sha256() {
+
+        return TokenUtils.sha256(token);
+    }
+}
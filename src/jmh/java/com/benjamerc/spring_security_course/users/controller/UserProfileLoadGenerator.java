@@ -0,0 +1,183 @@
+package com.benjamerc.spring_security_course.users.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class UserProfileLoadGenerator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String PASSWORD = "load-test-password";
+
+    public static void main(String[] args) throws Exception {
+
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int[] clients = Arrays.stream((args.length > 1 ? args[1] : "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration warmup = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+        Duration measurement = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(executor)
+                    .build();
+
+            String accessToken = authenticate(httpClient, baseUrl);
+
+            System.out.printf("%-8s %12s %10s %10s %10s %8s%n", "clients", "throughput/s", "p50 ms", "p99 ms", "max ms", "errors");
+
+            for (int clientCount : clients) {
+
+                run(httpClient, executor, baseUrl, accessToken, clientCount, warmup);
+
+                Result result = run(httpClient, executor, baseUrl, accessToken, clientCount, measurement);
+
+                System.out.printf("%-8d %12.1f %10.1f %10.1f %10.1f %8d%n",
+                        clientCount,
+                        result.throughput(),
+                        result.percentile(0.50),
+                        result.percentile(0.99),
+                        result.percentile(1.0),
+                        result.errors());
+            }
+        }
+    }
+
+    private static Result run(HttpClient httpClient, ExecutorService executor, String baseUrl, String accessToken,
+                              int clientCount, Duration duration) throws InterruptedException {
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/user/me"))
+                .header("Authorization", "Bearer " + accessToken)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        long[][] latencies = new long[clientCount][];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(clientCount);
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        for (int i = 0; i < clientCount; i++) {
+
+            int client = i;
+
+            executor.submit(() -> {
+
+                long[] samples = new long[1024];
+                int count = 0;
+
+                try {
+
+                    while (System.nanoTime() < deadline) {
+
+                        long requestStart = System.nanoTime();
+
+                        try {
+
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+
+                        } catch (IOException e) {
+
+                            errors.incrementAndGet();
+                            continue;
+                        }
+
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+
+                        samples[count++] = System.nanoTime() - requestStart;
+                    }
+
+                } catch (InterruptedException e) {
+
+                    Thread.currentThread().interrupt();
+
+                } finally {
+
+                    latencies[client] = Arrays.copyOf(samples, count);
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+
+        long elapsed = System.nanoTime() - start;
+        long[] merged = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+
+        return new Result(merged, elapsed, errors.get());
+    }
+
+    private static String authenticate(HttpClient httpClient, String baseUrl) throws IOException, InterruptedException {
+
+        String username = "load-" + UUID.randomUUID() + "@example.com";
+
+        post(httpClient, baseUrl + "/api/auth/register",
+                OBJECT_MAPPER.createObjectNode().put("username", username).put("name", "Load Test").put("password", PASSWORD));
+
+        JsonNode tokens = post(httpClient, baseUrl + "/api/auth/authenticate",
+                OBJECT_MAPPER.createObjectNode().put("username", username).put("password", PASSWORD));
+
+        return tokens.get("accessToken").asText();
+    }
+
+    private static JsonNode post(HttpClient httpClient, String url, JsonNode body) throws IOException, InterruptedException {
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(body)))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(url + " returned " + response.statusCode() + ": " + response.body());
+        }
+
+        return OBJECT_MAPPER.readTree(response.body());
+    }
+
+    private record Result(long[] sortedLatencies, long elapsedNanos, long errors) {
+
+        double throughput() {
+
+            return sortedLatencies.length / (elapsedNanos / 1e9);
+        }
+
+        double percentile(double percentile) {
+
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+
+            return sortedLatencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
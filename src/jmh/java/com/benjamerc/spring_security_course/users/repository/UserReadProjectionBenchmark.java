@@ -0,0 +1,112 @@
+package com.benjamerc.spring_security_course.users.repository;
+
+import com.benjamerc.spring_security_course.SpringSecurityCourseApplication;
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
+import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
+import com.benjamerc.spring_security_course.users.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserReadProjectionBenchmark {
+
+    private static final String PASSWORD_HASH = "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6h9Y6x6z1lE3c2r1QkFzG2a";
+
+    @Param({"1000"})
+    private int users;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private Pageable pageable;
+
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        context = new SpringApplicationBuilder(SpringSecurityCourseApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.main.banner-mode=off",
+                        "spring.main.lazy-initialization=true",
+                        "logging.level.root=WARN",
+                        "PAGINATION_MAX_PAGE_SIZE=" + pageSize,
+                        "JWT_SECRET_KEY=YmVuY2htYXJrLXNlY3JldC1rZXktZm9yLXVzZXItcmVhZC1wcm9qZWN0aW9ucy0wMTIzNDU2",
+                        "JWT_EXPIRATION=900000",
+                        "JWT_REFRESH_EXPIRATION=2592000000",
+                        "ALLOWED_ORIGINS=http://localhost"
+                )
+                .run();
+
+        userRepository = context.getBean(UserRepository.class);
+
+        List<User> saved = userRepository.saveAll(IntStream.range(0, users)
+                .mapToObj(i -> User.builder()
+                        .username("user" + i + "@email.com")
+                        .name("User " + i)
+                        .password(PASSWORD_HASH)
+                        .role(Role.USER)
+                        .build())
+                .toList());
+
+        pageable = PageRequest.of(0, pageSize, Sort.by("username"));
+        userId = saved.get(users / 2).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public Page<AdminUserSummaryResponse> adminPageWithEntities() {
+
+        return userRepository.findAll(pageable)
+                .map(user -> new AdminUserSummaryResponse(user.getId(), user.getUsername(), user.getName(), user.getRole()));
+    }
+
+    @Benchmark
+    public Page<AdminUserSummaryResponse> adminPageWithProjection() {
+
+        return userRepository.findAllSummaries(pageable);
+    }
+
+    @Benchmark
+    public UserProfileResponse profileWithEntity() {
+
+        User user = userRepository.findById(userId).orElseThrow();
+
+        return new UserProfileResponse(user.getUsername(), user.getName());
+    }
+
+    @Benchmark
+    public UserProfileResponse profileWithProjection() {
+
+        return userRepository.findProfileById(userId).orElseThrow();
+    }
+}
@@ -0,0 +1,25 @@
+package com.benjamerc.spring_security_course.authentication.controller;
+
+import com.benjamerc.spring_security_course.authentication.dto.response.AuthRefreshTokenPurgeResponse;
+import com.benjamerc.spring_security_course.authentication.security.RefreshTokenPurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminRefreshTokenController {
+
+    private final RefreshTokenPurger refreshTokenPurger;
+
+    @PostMapping("/refresh-tokens/purge")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuthRefreshTokenPurgeResponse> purge() {
+
+        return ResponseEntity.ok(new AuthRefreshTokenPurgeResponse(refreshTokenPurger.purge()));
+    }
+}
@@ -0,0 +1,6 @@
+package com.benjamerc.spring_security_course.authentication.dto.response;
+
+public record AuthRefreshTokenPurgeResponse(
+
+        int deleted
+) {}
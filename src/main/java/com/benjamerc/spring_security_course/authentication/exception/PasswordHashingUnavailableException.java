@@ -0,0 +1,16 @@
+package com.benjamerc.spring_security_course.authentication.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -19,12 +19,16 @@ import java.util.UUID;
 public class RefreshToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 88)
+    @Column(unique = true, length = 88)
     private String token;
 
+    @Column(length = 32)
+    private byte[] secretHash;
+
     @Column(nullable = false)
     private Instant expiryDate;
 
@@ -32,6 +36,8 @@ public class RefreshToken {
     @Column(nullable = false)
     private boolean revoked = false;
 
+    private Instant revokedAt;
+
     @Column(nullable = false)
     private UUID session;
 
@@ -2,8 +2,14 @@ package com.benjamerc.spring_security_course.authentication.repository;
 
 import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
 import com.benjamerc.spring_security_course.users.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,7 +18,34 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
 
     Optional<RefreshToken> findByToken(String token);
 
-    List<RefreshToken> findAllByUserAndRevokedFalse(User user);
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true, t.revokedAt = :now where t.id = :id and t.revoked = false")
+    int revokeIfActive(@Param("id") Long id, @Param("now") Instant now);
 
-    List<RefreshToken> findAllByUserAndSessionAndRevokedFalse(User user, UUID session);
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true, t.revokedAt = :now where t.user = :user and t.revoked = false")
+    int revokeAllByUser(@Param("user") User user, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true, t.revokedAt = :now where t.user = :user and t.session = :session and t.revoked = false")
+    int revokeAllByUserAndSession(@Param("user") User user, @Param("session") UUID session, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true, t.revokedAt = :now where t.user.id = :userId and t.session = :session and t.revoked = false")
+    int revokeFamily(@Param("userId") Long userId, @Param("session") UUID session, @Param("now") Instant now);
+
+    @Query("select t.id from RefreshToken t where t.expiryDate < :expiredBefore")
+    List<Long> findExpiredIds(@Param("expiredBefore") Instant expiredBefore, Limit limit);
+
+    @Query("select t.id from RefreshToken t where t.revoked = true and t.revokedAt < :revokedBefore")
+    List<Long> findRevokedIds(@Param("revokedBefore") Instant revokedBefore, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken t where t.id in :ids")
+    int deleteAllByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,107 @@
+package com.benjamerc.spring_security_course.authentication.security;
+
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class RefreshTokenPurger {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtProperties jwtProperties;
+
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RefreshTokenPurger(RefreshTokenRepository refreshTokenRepository, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtProperties = jwtProperties;
+
+        this.purgedCounter = Counter.builder("refresh_tokens.purged")
+                .description("Refresh tokens deleted by the purger")
+                .register(meterRegistry);
+
+        this.batchTimer = Timer.builder("refresh_tokens.purge.batch")
+                .description("Time spent deleting one chunk of refresh tokens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.security.jwt.refresh-token.purge.interval}",
+            initialDelayString = "${application.security.jwt.refresh-token.purge.interval}"
+    )
+    public void scheduledPurge() {
+
+        purge();
+    }
+
+    public int purge() {
+
+        if (!running.compareAndSet(false, true)) {
+
+            log.info("Refresh token purge already running, skipping");
+
+            return 0;
+        }
+
+        try {
+
+            JwtProperties.Purge properties = jwtProperties.getRefreshToken().getPurge();
+
+            Instant now = Instant.now();
+            Instant expiredBefore = now.minus(properties.getExpiredRetention());
+            Instant revokedBefore = now.minus(properties.getRevokedRetention());
+            Limit chunk = Limit.of(properties.getChunkSize());
+
+            int total = purgeInChunks(() -> refreshTokenRepository.findExpiredIds(expiredBefore, chunk), chunk)
+                    + purgeInChunks(() -> refreshTokenRepository.findRevokedIds(revokedBefore, chunk), chunk);
+
+            if (total > 0) {
+                log.info("Purged {} refresh tokens", total);
+            }
+
+            return total;
+
+        } finally {
+
+            running.set(false);
+        }
+    }
+
+    private int purgeInChunks(Supplier<List<Long>> nextChunk, Limit chunk) {
+
+        int total = 0;
+        int deleted;
+
+        do {
+
+            deleted = batchTimer.record(() -> deleteChunk(nextChunk.get()));
+
+            purgedCounter.increment(deleted);
+            total += deleted;
+
+        } while (deleted == chunk.max());
+
+        return total;
+    }
+
+    private int deleteChunk(List<Long> ids) {
+
+        return ids.isEmpty() ? 0 : refreshTokenRepository.deleteAllByIds(ids);
+    }
+}
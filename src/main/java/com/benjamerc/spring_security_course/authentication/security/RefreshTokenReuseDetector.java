@@ -0,0 +1,145 @@
+package com.benjamerc.spring_security_course.authentication.security;
+
+import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@Component
+@Slf4j
+public class RefreshTokenReuseDetector {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration gracePeriod;
+
+    private final Cache<Long, RotatedRefreshToken> rotated;
+    private final Counter reuseCounter;
+
+    public RefreshTokenReuseDetector(RefreshTokenRepository refreshTokenRepository, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+
+        JwtProperties.Reuse reuse = jwtProperties.getRefreshToken().getReuse();
+
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.gracePeriod = reuse.getGracePeriod();
+
+        this.rotated = Caffeine.newBuilder()
+                .maximumSize(reuse.getCacheMaximumSize())
+                .expireAfterWrite(reuse.getCacheTimeToLive())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, rotated, "rotatedRefreshTokens");
+
+        this.reuseCounter = Counter.builder("refresh_tokens.reuse_detected")
+                .description("Rotated refresh tokens presented again, revoking their whole session")
+                .register(meterRegistry);
+    }
+
+    public void rotated(RefreshToken refreshToken, Instant rotatedAt) {
+
+        if (refreshToken.getSecretHash() == null) {
+            return;
+        }
+
+        Long id = refreshToken.getId();
+
+        RotatedRefreshToken rotatedRefreshToken = new RotatedRefreshToken(
+                refreshToken.getSecretHash(),
+                refreshToken.getUser().getId(),
+                refreshToken.getSession(),
+                rotatedAt,
+                false
+        );
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            rotated.put(id, rotatedRefreshToken);
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                rotated.put(id, rotatedRefreshToken);
+            }
+        });
+    }
+
+    public boolean isRecentlyRotated(Long id, byte[] secretHash) {
+
+        RotatedRefreshToken rotatedRefreshToken = rotated.getIfPresent(id);
+
+        if (rotatedRefreshToken == null || !MessageDigest.isEqual(rotatedRefreshToken.secretHash(), secretHash)) {
+            return false;
+        }
+
+        reused(id, rotatedRefreshToken);
+
+        return true;
+    }
+
+    public void revokedTokenPresented(RefreshToken refreshToken) {
+
+        RotatedRefreshToken rotatedRefreshToken = new RotatedRefreshToken(
+                refreshToken.getSecretHash(),
+                refreshToken.getUser().getId(),
+                refreshToken.getSession(),
+                refreshToken.getRevokedAt(),
+                false
+        );
+
+        reused(refreshToken.getId(), rotatedRefreshToken);
+    }
+
+    private void reused(Long id, RotatedRefreshToken rotatedRefreshToken) {
+
+        Instant now = Instant.now();
+
+        if (rotatedRefreshToken.familyRevoked() || withinGracePeriod(rotatedRefreshToken.rotatedAt(), now)) {
+            return;
+        }
+
+        int revoked = refreshTokenRepository.revokeFamily(rotatedRefreshToken.userId(), rotatedRefreshToken.session(), now);
+
+        if (revoked > 0) {
+
+            reuseCounter.increment();
+
+            log.warn("Refresh token {} reused after rotation, revoked {} tokens of session {} for user {}",
+                    id, revoked, rotatedRefreshToken.session(), rotatedRefreshToken.userId());
+        }
+
+        if (rotatedRefreshToken.secretHash() != null) {
+            rotated.put(id, rotatedRefreshToken.withFamilyRevoked());
+        }
+    }
+
+    private boolean withinGracePeriod(Instant rotatedAt, Instant now) {
+
+        return rotatedAt != null && rotatedAt.plus(gracePeriod).isAfter(now);
+    }
+
+    private record RotatedRefreshToken(byte[] secretHash, Long userId, UUID session, Instant rotatedAt, boolean familyRevoked) {
+
+        RotatedRefreshToken withFamilyRevoked() {
+
+            return new RotatedRefreshToken(secretHash, userId, session, rotatedAt, true);
+        }
+    }
+}
@@ -11,42 +11,53 @@ import com.benjamerc.spring_security_course.authentication.exception.RefreshToke
 import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.Instant;
-import java.util.List;
+import java.util.Base64;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenService {
 
+    private static final char SEPARATOR = '.';
+    private static final int SECRET_LENGTH = 32;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtProperties jwtProperties;
+    private final RefreshTokenReuseDetector refreshTokenReuseDetector;
 
+    @Transactional
     public RefreshTokenWithRaw createRefreshToken(User user, UUID session) {
 
         long expirationMillis = jwtProperties.getRefreshToken().getExpiration();
 
-        String rawToken = UUID.randomUUID().toString();
-        String hashedToken = TokenUtils.hashSHA256(rawToken);
+        String secret = generateSecret();
 
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(hashedToken)
+                .secretHash(TokenUtils.sha256(secret))
                 .expiryDate(Instant.now().plusMillis(expirationMillis))
                 .session(session)
                 .user(user)
                 .build();
 
-        refreshTokenRepository.save(refreshToken);
+        RefreshToken savedRefreshToken = refreshTokenRepository.save(refreshToken);
 
-        return new RefreshTokenWithRaw(refreshToken, rawToken);
+        return new RefreshTokenWithRaw(savedRefreshToken, savedRefreshToken.getId() + String.valueOf(SEPARATOR) + secret);
     }
 
+    @Transactional(noRollbackFor = RefreshTokenRevokedException.class)
     public RefreshToken validateRefreshToken(String token) {
 
-        RefreshToken refreshToken = getRefreshTokenOrThrow(TokenUtils.hashSHA256(token));
+        RefreshToken refreshToken = getRefreshTokenOrThrow(token);
 
         if (refreshToken.isRevoked()) {
+            refreshTokenReuseDetector.revokedTokenPresented(refreshToken);
             throw new RefreshTokenRevokedException("Refresh token revoked");
         }
 
@@ -57,54 +68,102 @@ public class RefreshTokenService {
         return refreshToken;
     }
 
+    @Transactional(noRollbackFor = RefreshTokenRevokedException.class)
     public void revokeRefreshToken(String token) {
 
         RefreshToken refreshToken = validateRefreshToken(token);
 
-        refreshToken.setRevoked(true);
-
-        refreshTokenRepository.save(refreshToken);
+        revokeOrThrow(refreshToken);
     }
 
+    @Transactional(noRollbackFor = RefreshTokenRevokedException.class)
     public RefreshTokenWithRaw rotateRefreshToken(String token) {
 
         RefreshToken refreshToken = validateRefreshToken(token);
 
-        User user = refreshToken.getUser();
-        UUID session = refreshToken.getSession();
+        Instant rotatedAt = revokeOrThrow(refreshToken);
 
-        revokeTokensBySession(user, session);
+        refreshTokenReuseDetector.rotated(refreshToken, rotatedAt);
 
-        return createRefreshToken(user, session);
+        return createRefreshToken(refreshToken.getUser(), refreshToken.getSession());
     }
 
+    @Transactional
     public void revokeTokensBySession(User user, UUID session) {
 
-        List<RefreshToken> tokens = refreshTokenRepository.findAllByUserAndSessionAndRevokedFalse(user, session);
+        refreshTokenRepository.revokeAllByUserAndSession(user, session, Instant.now());
+    }
 
-        if (!tokens.isEmpty()) {
+    @Transactional
+    public void revokeAllTokensForUser(User user) {
 
-            tokens.forEach(t -> t.setRevoked(true));
+        refreshTokenRepository.revokeAllByUser(user, Instant.now());
+    }
+
+    private Instant revokeOrThrow(RefreshToken refreshToken) {
 
-            refreshTokenRepository.saveAll(tokens);
+        Instant now = Instant.now();
+
+        if (refreshTokenRepository.revokeIfActive(refreshToken.getId(), now) == 0) {
+            throw new RefreshTokenRevokedException("Refresh token revoked");
         }
+
+        return now;
     }
 
-    public void revokeAllTokensForUser(User user) {
+    private RefreshToken getRefreshTokenOrThrow(String token) {
+
+        int separator = token.indexOf(SEPARATOR);
 
-        List<RefreshToken> refreshTokens = refreshTokenRepository.findAllByUserAndRevokedFalse(user);
+        if (separator < 0) {
+            return getLegacyRefreshTokenOrThrow(token);
+        }
+
+        Long id = parseId(token.substring(0, separator));
 
-        if (!refreshTokens.isEmpty()) {
+        if (id == null) {
+            throw new RefreshTokenNotFoundException("Refresh token not found");
+        }
 
-            refreshTokens.forEach(t -> t.setRevoked(true));
+        byte[] secretHash = TokenUtils.sha256(token.substring(separator + 1));
 
-            refreshTokenRepository.saveAll(refreshTokens);
+        if (refreshTokenReuseDetector.isRecentlyRotated(id, secretHash)) {
+            throw new RefreshTokenRevokedException("Refresh token revoked");
         }
+
+        return refreshTokenRepository.findById(id)
+                .filter(refreshToken -> refreshToken.getSecretHash() != null)
+                .filter(refreshToken -> MessageDigest.isEqual(refreshToken.getSecretHash(), secretHash))
+                .orElseThrow(() -> new RefreshTokenNotFoundException("Refresh token not found"));
     }
 
-    private RefreshToken getRefreshTokenOrThrow(String token) {
+    private RefreshToken getLegacyRefreshTokenOrThrow(String token) {
+
+        if (!jwtProperties.getRefreshToken().isLegacyFormatEnabled()) {
+            throw new RefreshTokenNotFoundException("Refresh token not found");
+        }
 
-        return refreshTokenRepository.findByToken(token)
+        return refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))
                 .orElseThrow(() -> new RefreshTokenNotFoundException("Refresh token not found"));
     }
+
+    private static Long parseId(String id) {
+
+        try {
+
+            return Long.valueOf(id);
+
+        } catch (NumberFormatException e) {
+
+            return null;
+        }
+    }
+
+    private static String generateSecret() {
+
+        byte[] secret = new byte[SECRET_LENGTH];
+        SECURE_RANDOM.nextBytes(secret);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
 }
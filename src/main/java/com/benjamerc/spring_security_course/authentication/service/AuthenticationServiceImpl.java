@@ -6,26 +6,31 @@ import com.benjamerc.spring_security_course.authentication.dto.request.AuthRegis
 import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
 import com.benjamerc.spring_security_course.authentication.dto.response.AuthRegisterResponse;
 import com.benjamerc.spring_security_course.authentication.dto.token.RefreshTokenWithRaw;
-import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
+import com.benjamerc.spring_security_course.authentication.exception.PasswordHashingUnavailableException;
+import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenRevokedException;
 import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
 import com.benjamerc.spring_security_course.users.model.User;
 import com.benjamerc.spring_security_course.authentication.mapper.AuthenticationMapper;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.benjamerc.spring_security_course.users.service.UsernameFilter;
 import com.benjamerc.spring_security_course.security.core.CustomUserDetails;
 import com.benjamerc.spring_security_course.security.core.AccessTokenService;
 import com.benjamerc.spring_security_course.authentication.security.RefreshTokenService;
 import com.benjamerc.spring_security_course.security.core.Role;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthenticationServiceImpl implements AuthenticationService {
 
     private final UserRepository userRepository;
@@ -34,15 +39,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final AccessTokenService accessTokenService;
     private final RefreshTokenService refreshTokenService;
+    private final UsernameFilter usernameFilter;
 
     @Override
     public AuthRegisterResponse register(AuthRegisterRequest request) {
 
-        if (userRepository.existsByUsername(request.username())) {
-
-            throw new UsernameAlreadyExistsException("Username already exists");
-        }
-
         User user = User.builder()
                 .username(request.username())
                 .name(request.name())
@@ -50,6 +51,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .role(Role.USER)
                 .build();
 
+        usernameFilter.add(user.getUsername());
+
         return authenticationMapper.toAuthRegisterResponse(userRepository.save(user));
     }
 
@@ -63,6 +66,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = userDetails.getUser();
 
+        upgradePasswordHashIfNeeded(user, request.password());
+
         UUID session = UUID.randomUUID();
 
         String accessToken = accessTokenService.createAccessToken(user);
@@ -72,6 +77,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     }
 
     @Override
+    @Transactional(noRollbackFor = RefreshTokenRevokedException.class)
     public AuthAuthenticateResponse refreshToken(AuthRefreshTokenRequest request) {
 
         RefreshTokenWithRaw newRefreshToken = refreshTokenService.rotateRefreshToken(request.token());
@@ -81,10 +87,27 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     }
 
     @Override
+    @Transactional(noRollbackFor = RefreshTokenRevokedException.class)
     public void logout(AuthRefreshTokenRequest request) {
 
         RefreshToken refreshToken = refreshTokenService.validateRefreshToken(request.token());
 
         refreshTokenService.revokeTokensBySession(refreshToken.getUser(), refreshToken.getSession());
     }
+
+    private void upgradePasswordHashIfNeeded(User user, String rawPassword) {
+
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+
+        try {
+
+            userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(), passwordEncoder.encode(rawPassword));
+
+        } catch (PasswordHashingUnavailableException e) {
+
+            log.info("Skipping password hash upgrade for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
 }
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "application.security.jwt")
 @Data
@@ -15,8 +17,51 @@ public class JwtProperties {
 
     private RefreshToken refreshToken;
 
+    private Cache cache;
+
+    private Keys keys;
+
+    private Revocations revocations;
+
     @Data
     public static class RefreshToken {
         private long expiration;
+        private boolean legacyFormatEnabled;
+        private Purge purge;
+        private Reuse reuse;
+    }
+
+    @Data
+    public static class Reuse {
+        private Duration gracePeriod;
+        private long cacheMaximumSize;
+        private Duration cacheTimeToLive;
+    }
+
+    @Data
+    public static class Purge {
+        private Duration interval;
+        private Duration expiredRetention;
+        private Duration revokedRetention;
+        private int chunkSize;
+    }
+
+    @Data
+    public static class Cache {
+        private long maximumSize;
+    }
+
+    @Data
+    public static class Revocations {
+        private Duration refreshInterval;
+    }
+
+    @Data
+    public static class Keys {
+        private String algorithm;
+        private Duration rotationInterval;
+        private Duration activationDelay;
+        private Duration refreshInterval;
+        private boolean legacyHmacEnabled;
     }
 }
@@ -0,0 +1,34 @@
+package com.benjamerc.spring_security_course.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.security.password-encoder")
+@Data
+public class PasswordEncoderProperties {
+
+    private String encodingId;
+
+    private int strength;
+
+    private Argon2 argon2;
+
+    private int poolSize;
+
+    private int queueCapacity;
+
+    private Duration retryAfter;
+
+    @Data
+    public static class Argon2 {
+        private int saltLength;
+        private int hashLength;
+        private int parallelism;
+        private int memory;
+        private int iterations;
+    }
+}
@@ -1,7 +1,10 @@
 package com.benjamerc.spring_security_course.security.config;
 
+import com.benjamerc.spring_security_course.security.core.BoundedPasswordEncoder;
 import com.benjamerc.spring_security_course.security.core.CustomUserDetailsService;
 import com.benjamerc.spring_security_course.security.core.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,11 +16,15 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -36,12 +43,16 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/v3/api-docs.yaml"
                         ).permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/user/**").hasRole("USER")
@@ -59,9 +70,32 @@ public class SecurityConfig {
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(PasswordEncoderProperties properties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder(properties), properties, meterRegistry);
+    }
+
+    static PasswordEncoder delegatingPasswordEncoder(PasswordEncoderProperties properties) {
+
+        PasswordEncoderProperties.Argon2 argon2 = properties.getArgon2();
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.getStrength());
+
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", new Argon2PasswordEncoder(
+                        argon2.getSaltLength(),
+                        argon2.getHashLength(),
+                        argon2.getParallelism(),
+                        argon2.getMemory(),
+                        argon2.getIterations()
+                )
+        );
+
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(properties.getEncodingId(), encoders);
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return delegatingPasswordEncoder;
     }
 
     @Bean
@@ -0,0 +1,35 @@
+package com.benjamerc.spring_security_course.security.controller;
+
+import com.benjamerc.spring_security_course.security.core.SigningKeyRing;
+import io.jsonwebtoken.security.JwkSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final SigningKeyRing signingKeyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<JwkSet> jwks(WebRequest request) {
+
+        String etag = "\"" + signingKeyRing.jwksETag() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(304).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(signingKeyRing.jwks());
+    }
+}
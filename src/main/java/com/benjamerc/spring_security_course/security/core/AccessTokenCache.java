@@ -0,0 +1,86 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+@Component
+public class AccessTokenCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    public AccessTokenCache(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getCache().getMaximumSize())
+                .expireAfter(Expiry.creating((String signature, CachedAuthentication cached) ->
+                        Duration.between(Instant.now(), cached.expiresAt())))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accessTokens");
+    }
+
+    public CachedAuthentication get(String token) {
+
+        String signature = signatureOf(token);
+
+        if (signature == null) {
+            return null;
+        }
+
+        CachedAuthentication cached = cache.getIfPresent(signature);
+
+        if (cached == null || !cached.token().equals(token) || !cached.expiresAt().isAfter(Instant.now())) {
+            return null;
+        }
+
+        return cached;
+    }
+
+    public CachedAuthentication put(String token, UsernamePasswordAuthenticationToken authentication, Date issuedAt, Date expiration) {
+
+        CachedAuthentication cached = new CachedAuthentication(
+                token,
+                authentication,
+                issuedAt == null ? null : issuedAt.toInstant(),
+                expiration == null ? null : expiration.toInstant()
+        );
+
+        String signature = signatureOf(token);
+
+        if (signature != null && expiration != null) {
+            cache.put(signature, cached);
+        }
+
+        return cached;
+    }
+
+    private String signatureOf(String token) {
+
+        int separator = token.lastIndexOf('.');
+
+        if (separator < 0 || separator == token.length() - 1) {
+            return null;
+        }
+
+        return token.substring(separator + 1);
+    }
+
+    public record CachedAuthentication(String token, UsernamePasswordAuthenticationToken authentication, Instant issuedAt, Instant expiresAt) {
+
+        public Long userId() {
+
+            return ((CustomUserDetails) authentication.getPrincipal()).getUser().getId();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.repository.AccessTokenRevocationRepository;
+import com.benjamerc.spring_security_course.shared.event.ClusterEvent;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class AccessTokenRevocations {
+
+    private final AccessTokenRevocationRepository accessTokenRevocationRepository;
+    private final JwtProperties jwtProperties;
+    private final ClusterEventBus clusterEventBus;
+
+    private final Map<Long, Instant> notBefore = new ConcurrentHashMap<>();
+
+    public AccessTokenRevocations(AccessTokenRevocationRepository accessTokenRevocationRepository, JwtProperties jwtProperties,
+                                  ClusterEventBus clusterEventBus, MeterRegistry meterRegistry) {
+
+        this.accessTokenRevocationRepository = accessTokenRevocationRepository;
+        this.jwtProperties = jwtProperties;
+        this.clusterEventBus = clusterEventBus;
+
+        Gauge.builder("access_tokens.revocations", notBefore, Map::size)
+                .description("Users whose access tokens issued before a cutoff are rejected")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+
+        refresh();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.security.jwt.revocations.refresh-interval}",
+            initialDelayString = "${application.security.jwt.revocations.refresh-interval}"
+    )
+    public void refresh() {
+
+        Instant cutoff = cutoff();
+
+        int pruned = accessTokenRevocationRepository.deleteExpired(cutoff);
+
+        accessTokenRevocationRepository.findAllByNotBeforeAfter(cutoff)
+                .forEach(revocation -> notBefore.merge(revocation.getUserId(), revocation.getNotBefore(), AccessTokenRevocations::latest));
+
+        notBefore.values().removeIf(instant -> !instant.isAfter(cutoff));
+
+        if (pruned > 0) {
+            log.info("Pruned {} access token revocations", pruned);
+        }
+    }
+
+    public void revokeAll(Long userId) {
+
+        Instant now = Instant.now();
+
+        accessTokenRevocationRepository.upsertNotBefore(userId, now);
+
+        notBefore.merge(userId, now, AccessTokenRevocations::latest);
+
+        clusterEventBus.publish(ClusterEvent.accessTokensRevoked(userId, now));
+    }
+
+    @EventListener
+    public void onClusterEvent(ClusterEvent event) {
+
+        if (event.type() == ClusterEventType.ACCESS_TOKENS_REVOKED && event.notBefore() != null) {
+            notBefore.merge(event.userId(), event.notBefore(), AccessTokenRevocations::latest);
+        }
+    }
+
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+
+        Instant revokedAt = userId == null ? null : notBefore.get(userId);
+
+        if (revokedAt == null) {
+            return false;
+        }
+
+        return issuedAt == null || !issuedAt.isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private Instant cutoff() {
+
+        return Instant.now().minusMillis(jwtProperties.getExpiration());
+    }
+
+    private static Instant latest(Instant first, Instant second) {
+
+        return first.isAfter(second) ? first : second;
+    }
+}
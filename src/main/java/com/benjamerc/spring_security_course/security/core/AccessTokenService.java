@@ -4,12 +4,17 @@ import com.benjamerc.spring_security_course.security.config.JwtProperties;
 import com.benjamerc.spring_security_course.users.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 
 @Service
@@ -17,31 +22,73 @@ import java.util.Date;
 public class AccessTokenService {
 
     private final JwtProperties jwtProperties;
+    private final SigningKeyRing signingKeyRing;
 
-    private SecretKey getSigningKey() {
+    private volatile VerificationMaterial verificationMaterial;
 
-        return Keys.hmacShaKeyFor(jwtProperties.getSecretKey().getBytes());
+    @PostConstruct
+    void init() {
+
+        getVerificationMaterial();
     }
 
     public String createAccessToken(User user) {
 
+        SigningKeyRing.RingKey signingKey = signingKeyRing.signingKey();
+
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .subject(user.getUsername())
                 .claim("id", user.getId())
                 .claim("role", user.getRole())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
-                .signWith(getSigningKey())
+                .signWith(signingKey.privateKey(), signingKey.algorithm())
                 .compact();
     }
 
     public Claims validateAccessToken(String token) {
 
-        Jws<Claims> jws = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
+        Jws<Claims> jws = getVerificationMaterial().parser().parseSignedClaims(token);
 
         return jws.getPayload();
     }
+
+    private VerificationMaterial getVerificationMaterial() {
+
+        String secretKey = jwtProperties.getSecretKey();
+        boolean legacyHmacEnabled = jwtProperties.getKeys().isLegacyHmacEnabled();
+        VerificationMaterial current = verificationMaterial;
+
+        if (current == null || !current.secretKey().equals(secretKey) || current.legacyHmacEnabled() != legacyHmacEnabled) {
+
+            current = VerificationMaterial.of(secretKey, legacyHmacEnabled, signingKeyRing);
+            verificationMaterial = current;
+        }
+
+        return current;
+    }
+
+    private record VerificationMaterial(String secretKey, boolean legacyHmacEnabled, JwtParser parser) {
+
+        static VerificationMaterial of(String secretKey, boolean legacyHmacEnabled, SigningKeyRing signingKeyRing) {
+
+            SecretKey legacyKey = legacyHmacEnabled ? Keys.hmacShaKeyFor(secretKey.getBytes()) : null;
+
+            JwtParser parser = Jwts.parser()
+                    .keyLocator(new LocatorAdapter<Key>() {
+
+                        @Override
+                        protected Key locate(JwsHeader header) {
+
+                            String kid = header.getKeyId();
+
+                            return kid == null ? legacyKey : signingKeyRing.verificationKey(kid);
+                        }
+                    })
+                    .build();
+
+            return new VerificationMaterial(secretKey, legacyHmacEnabled, parser);
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.authentication.exception.HashingException;
+import com.benjamerc.spring_security_course.authentication.exception.PasswordHashingUnavailableException;
+import com.benjamerc.spring_security_course.security.config.PasswordEncoderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Duration retryAfter;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordEncoderProperties properties, MeterRegistry meterRegistry) {
+
+        this.delegate = delegate;
+        this.retryAfter = properties.getRetryAfter();
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-encoder-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordEncoder");
+
+        this.encodeTimer = Timer.builder("password_encoder.hash")
+                .description("Time spent hashing or matching a password")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+
+        this.matchesTimer = Timer.builder("password_encoder.hash")
+                .description("Time spent hashing or matching a password")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+
+        this.rejectedCounter = Counter.builder("password_encoder.rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+
+        return submit(encodeTask(rawPassword));
+    }
+
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+
+        try {
+
+            for (CharSequence rawPassword : rawPasswords) {
+
+                if (inFlight.size() >= executor.getMaximumPoolSize()) {
+                    encoded.add(await(inFlight.poll()));
+                }
+
+                inFlight.add(submitWhenCapacity(encodeTask(rawPassword), inFlight, encoded));
+            }
+
+            while (!inFlight.isEmpty()) {
+                encoded.add(await(inFlight.poll()));
+            }
+
+        } finally {
+
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+
+        executor.shutdown();
+    }
+
+    private Callable<String> encodeTask(CharSequence rawPassword) {
+
+        return () -> encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    private Future<String> submitWhenCapacity(Callable<String> task, Deque<Future<String>> inFlight, List<String> encoded) {
+
+        while (true) {
+
+            try {
+
+                return executor.submit(task);
+
+            } catch (RejectedExecutionException e) {
+
+                if (inFlight.isEmpty()) {
+                    throw rejected();
+                }
+
+                encoded.add(await(inFlight.poll()));
+            }
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+
+        Future<T> future;
+
+        try {
+
+            future = executor.submit(task);
+
+        } catch (RejectedExecutionException e) {
+
+            throw rejected();
+        }
+
+        return await(future);
+    }
+
+    private PasswordHashingUnavailableException rejected() {
+
+        rejectedCounter.increment();
+
+        return new PasswordHashingUnavailableException("Too many concurrent authentication requests", retryAfter);
+    }
+
+    private <T> T await(Future<T> future) {
+
+        try {
+
+            return future.get();
+
+        } catch (InterruptedException e) {
+
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new HashingException("Interrupted while hashing password", e);
+
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new HashingException("Error hashing password", e.getCause());
+        }
+    }
+}
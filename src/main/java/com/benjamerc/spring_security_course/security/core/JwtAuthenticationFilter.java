@@ -19,6 +19,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final AccessTokenService accessTokenService;
+    private final AccessTokenCache accessTokenCache;
+    private final AccessTokenRevocations accessTokenRevocations;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,28 +34,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
+        AccessTokenCache.CachedAuthentication authentication = accessTokenCache.get(token);
+
+        if (authentication == null) {
+            authentication = authenticate(token);
+        }
+
+        if (authentication != null && accessTokenRevocations.isRevoked(authentication.userId(), authentication.issuedAt())) {
+            authentication = null;
+        }
+
+        if (authentication != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            SecurityContextHolder.getContext().setAuthentication(authentication.authentication());
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private AccessTokenCache.CachedAuthentication authenticate(String token) {
+
         Claims claims = accessTokenService.validateAccessToken(token);
 
         String username = claims.getSubject();
         Long id = claims.get("id", Long.class);
         String role = claims.get("role", String.class);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            User userFromToken = User.builder()
-                    .id(id)
-                    .username(username)
-                    .role(Role.valueOf(role))
-                    .build();
+        if (username == null) {
+            return null;
+        }
 
-            CustomUserDetails userDetails = new CustomUserDetails(userFromToken);
+        User userFromToken = User.builder()
+                .id(id)
+                .username(username)
+                .role(Role.valueOf(role))
+                .build();
 
-            UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        CustomUserDetails userDetails = new CustomUserDetails(userFromToken);
 
-            SecurityContextHolder.getContext().setAuthentication(authToken);
-        }
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
-        filterChain.doFilter(request, response);
+        return accessTokenCache.put(token, authToken, claims.getIssuedAt(), claims.getExpiration());
     }
-}
\ No newline at end of file
+}
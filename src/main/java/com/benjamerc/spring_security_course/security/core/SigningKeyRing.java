@@ -0,0 +1,324 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.model.SigningKey;
+import com.benjamerc.spring_security_course.security.repository.SigningKeyRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.KeyPairBuilderSupplier;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.*;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SigningKeyRing {
+
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 128;
+    private static final Duration UNKNOWN_KID_RELOAD_INTERVAL = Duration.ofSeconds(1);
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final JwtProperties jwtProperties;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private Instant lastReload = Instant.EPOCH;
+
+    @PostConstruct
+    void init() {
+
+        rotate();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.security.jwt.keys.refresh-interval}",
+            initialDelayString = "${application.security.jwt.keys.refresh-interval}"
+    )
+    public void rotate() {
+
+        Instant now = Instant.now();
+
+        signingKeyRepository.deleteExpired(now);
+
+        List<SigningKey> stored = signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(now);
+        List<RingKey> keys = toRingKeys(stored);
+
+        if (isRotationDue(keys, now)) {
+
+            long generation = nextGeneration(stored);
+
+            try {
+
+                List<RingKey> rotated = new ArrayList<>();
+                rotated.add(toRingKey(generate(now, keys.stream().noneMatch(k -> k.canSign(now)), generation)));
+                rotated.addAll(keys);
+                keys = rotated;
+
+            } catch (DataIntegrityViolationException e) {
+
+                log.info("Signing key generation {} was already created by another node", generation);
+
+                keys = toRingKeys(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(now));
+            }
+        }
+
+        snapshot = Snapshot.of(keys);
+    }
+
+    public RingKey signingKey() {
+
+        Instant now = Instant.now();
+
+        return snapshot.keys().stream()
+                .filter(key -> key.canSign(now))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No active signing key available"));
+    }
+
+    public PublicKey verificationKey(String kid) {
+
+        RingKey key = snapshot.byKid().get(kid);
+
+        if (key == null && reload(Instant.now())) {
+            key = snapshot.byKid().get(kid);
+        }
+
+        return key != null ? key.publicKey() : null;
+    }
+
+    public JwkSet jwks() {
+
+        return snapshot.jwks();
+    }
+
+    public String jwksETag() {
+
+        return snapshot.etag();
+    }
+
+    private boolean reload(Instant missedAt) {
+
+        reloadLock.lock();
+
+        try {
+
+            if (lastReload.isAfter(missedAt)) {
+                return true;
+            }
+
+            if (lastReload.plus(UNKNOWN_KID_RELOAD_INTERVAL).isAfter(missedAt)) {
+                return false;
+            }
+
+            lastReload = Instant.now();
+            snapshot = Snapshot.of(toRingKeys(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(lastReload)));
+
+            return true;
+
+        } finally {
+
+            reloadLock.unlock();
+        }
+    }
+
+    private List<RingKey> toRingKeys(List<SigningKey> stored) {
+
+        return stored.stream()
+                .map(this::toRingKey)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static long nextGeneration(List<SigningKey> stored) {
+
+        return stored.stream()
+                .map(SigningKey::getGeneration)
+                .filter(Objects::nonNull)
+                .max(Long::compare)
+                .orElse(0L) + 1;
+    }
+
+    private boolean isRotationDue(List<RingKey> keys, Instant now) {
+
+        Optional<RingKey> newest = keys.stream().filter(key -> key.privateKey() != null).findFirst();
+
+        if (newest.isEmpty()) {
+            return true;
+        }
+
+        Duration rotationInterval = jwtProperties.getKeys().getRotationInterval();
+        Duration activationDelay = jwtProperties.getKeys().getActivationDelay();
+
+        return !newest.get().activatesAt().plus(rotationInterval).minus(activationDelay).isAfter(now);
+    }
+
+    private SigningKey generate(Instant now, boolean activateImmediately, long generation) {
+
+        JwtProperties.Keys properties = jwtProperties.getKeys();
+        SignatureAlgorithm algorithm = algorithmFor(properties.getAlgorithm());
+
+        KeyPair keyPair = "EdDSA".equals(algorithm.getId())
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : ((KeyPairBuilderSupplier) algorithm).keyPair().build();
+
+        Instant activatesAt = activateImmediately ? now : now.plus(properties.getActivationDelay());
+        Instant expiresAt = activatesAt
+                .plus(properties.getRotationInterval())
+                .plus(properties.getActivationDelay())
+                .plusMillis(jwtProperties.getExpiration());
+
+        SigningKey signingKey = SigningKey.builder()
+                .kid(UUID.randomUUID().toString())
+                .generation(generation)
+                .algorithm(algorithm.getId())
+                .privateKey(encrypt(keyPair.getPrivate().getEncoded()))
+                .publicKey(keyPair.getPublic().getEncoded())
+                .createdAt(now)
+                .activatesAt(activatesAt)
+                .expiresAt(expiresAt)
+                .build();
+
+        signingKeyRepository.save(signingKey);
+
+        log.info("Generated {} signing key {} (generation {}) active from {}", signingKey.getAlgorithm(), signingKey.getKid(), generation, activatesAt);
+
+        return signingKey;
+    }
+
+    private RingKey toRingKey(SigningKey signingKey) {
+
+        try {
+
+            SignatureAlgorithm algorithm = algorithmFor(signingKey.getAlgorithm());
+            KeyFactory keyFactory = KeyFactory.getInstance("EdDSA".equals(algorithm.getId()) ? "EdDSA" : "EC");
+
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(signingKey.getPublicKey()));
+            PrivateKey privateKey = decryptPrivateKey(keyFactory, signingKey);
+
+            return new RingKey(signingKey.getKid(), algorithm, privateKey, publicKey, signingKey.getActivatesAt());
+
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+
+            log.warn("Skipping unreadable signing key {}", signingKey.getKid(), e);
+
+            return null;
+        }
+    }
+
+    private PrivateKey decryptPrivateKey(KeyFactory keyFactory, SigningKey signingKey) {
+
+        try {
+
+            return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decrypt(signingKey.getPrivateKey())));
+
+        } catch (GeneralSecurityException e) {
+
+            log.warn("Signing key {} can no longer be decrypted and will only be used for verification", signingKey.getKid());
+
+            return null;
+        }
+    }
+
+    private byte[] encrypt(byte[] plaintext) {
+
+        try {
+
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            secureRandom.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey(), new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+
+            return ByteBuffer.allocate(iv.length + cipher.getOutputSize(plaintext.length))
+                    .put(iv)
+                    .put(cipher.doFinal(plaintext))
+                    .array();
+
+        } catch (GeneralSecurityException e) {
+
+            throw new IllegalStateException("Unable to encrypt signing key", e);
+        }
+    }
+
+    private byte[] decrypt(byte[] ciphertext) throws GeneralSecurityException {
+
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey(), new GCMParameterSpec(GCM_TAG_LENGTH, ciphertext, 0, GCM_IV_LENGTH));
+
+        return cipher.doFinal(ciphertext, GCM_IV_LENGTH, ciphertext.length - GCM_IV_LENGTH);
+    }
+
+    private SecretKeySpec encryptionKey() {
+
+        return new SecretKeySpec(TokenUtils.sha256(jwtProperties.getSecretKey()), "AES");
+    }
+
+    private static SignatureAlgorithm algorithmFor(String id) {
+
+        if ("ES256".equals(id)) {
+            return Jwts.SIG.ES256;
+        }
+
+        if ("EdDSA".equals(id)) {
+            return Jwts.SIG.EdDSA;
+        }
+
+        throw new IllegalArgumentException("Unsupported signing algorithm: " + id);
+    }
+
+    public record RingKey(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey, Instant activatesAt) {
+
+        boolean canSign(Instant now) {
+
+            return privateKey != null && !activatesAt.isAfter(now);
+        }
+    }
+
+    private record Snapshot(List<RingKey> keys, Map<String, RingKey> byKid, JwkSet jwks, String etag) {
+
+        static Snapshot of(List<RingKey> keys) {
+
+            Map<String, RingKey> byKid = new HashMap<>();
+            List<Jwk<?>> publicJwks = new ArrayList<>();
+
+            for (RingKey key : keys) {
+
+                byKid.put(key.kid(), key);
+                publicJwks.add(Jwks.builder()
+                        .key(key.publicKey())
+                        .id(key.kid())
+                        .algorithm(key.algorithm().getId())
+                        .publicKeyUse("sig")
+                        .build());
+            }
+
+            String kids = String.join(",", new TreeSet<>(byKid.keySet()));
+            String etag = Base64.getUrlEncoder().withoutPadding().encodeToString(TokenUtils.sha256(kids));
+
+            return new Snapshot(List.copyOf(keys), Map.copyOf(byKid), Jwks.set().add(publicJwks).build(), etag);
+        }
+    }
+}
@@ -11,13 +11,16 @@ public class TokenUtils {
 
     public static String hashSHA256(String input) {
 
+        return Base64.getEncoder().encodeToString(sha256(input));
+    }
+
+    public static byte[] sha256(String input) {
+
         try {
 
             MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
 
-            byte[] hashed = messageDigest.digest(input.getBytes(StandardCharsets.UTF_8));
-
-            return Base64.getEncoder().encodeToString(hashed);
+            return messageDigest.digest(input.getBytes(StandardCharsets.UTF_8));
 
         } catch (NoSuchAlgorithmException e) {
 
@@ -0,0 +1,27 @@
+package com.benjamerc.spring_security_course.security.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "access_token_revocations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccessTokenRevocation {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant notBefore;
+}
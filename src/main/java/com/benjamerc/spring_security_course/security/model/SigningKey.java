@@ -0,0 +1,46 @@
+package com.benjamerc.spring_security_course.security.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "signing_keys", uniqueConstraints = @UniqueConstraint(name = "uk_signing_keys_generation", columnNames = "generation"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SigningKey {
+
+    @Id
+    @Column(length = 36)
+    private String kid;
+
+    private Long generation;
+
+    @Column(nullable = false, length = 10)
+    private String algorithm;
+
+    @Column(nullable = false, length = 512)
+    private byte[] privateKey;
+
+    @Column(nullable = false, length = 512)
+    private byte[] publicKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant activatesAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
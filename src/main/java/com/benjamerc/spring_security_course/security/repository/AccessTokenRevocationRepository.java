@@ -0,0 +1,21 @@
+package com.benjamerc.spring_security_course.security.repository;
+
+import com.benjamerc.spring_security_course.security.model.AccessTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AccessTokenRevocationRepository extends JpaRepository<AccessTokenRevocation, Long>, AccessTokenRevocationUpsertRepository {
+
+    List<AccessTokenRevocation> findAllByNotBeforeAfter(Instant cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AccessTokenRevocation r where r.notBefore <= :cutoff")
+    int deleteExpired(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,8 @@
+package com.benjamerc.spring_security_course.security.repository;
+
+import java.time.Instant;
+
+public interface AccessTokenRevocationUpsertRepository {
+
+    void upsertNotBefore(Long userId, Instant notBefore);
+}
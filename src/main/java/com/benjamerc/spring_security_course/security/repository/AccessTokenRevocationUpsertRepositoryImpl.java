@@ -0,0 +1,50 @@
+package com.benjamerc.spring_security_course.security.repository;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+public class AccessTokenRevocationUpsertRepositoryImpl implements AccessTokenRevocationUpsertRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public AccessTokenRevocationUpsertRepositoryImpl(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+    }
+
+    @Override
+    @Transactional
+    public void upsertNotBefore(Long userId, Instant notBefore) {
+
+        OffsetDateTime value = notBefore.atOffset(ZoneOffset.UTC);
+
+        if (postgres) {
+
+            jdbcTemplate.update(
+                    "insert into access_token_revocations (user_id, not_before) values (?, ?) "
+                            + "on conflict (user_id) do update set not_before = greatest(access_token_revocations.not_before, excluded.not_before)",
+                    userId,
+                    value
+            );
+
+            return;
+        }
+
+        try {
+
+            jdbcTemplate.update("insert into access_token_revocations (user_id, not_before) values (?, ?)", userId, value);
+
+        } catch (DuplicateKeyException e) {
+
+            jdbcTemplate.update("update access_token_revocations set not_before = greatest(not_before, ?) where user_id = ?", value, userId);
+        }
+    }
+}
@@ -5,7 +5,9 @@ import com.benjamerc.spring_security_course.shared.builder.ApiErrorBuilder;
 import com.benjamerc.spring_security_course.shared.dto.error.ApiError;
 import com.benjamerc.spring_security_course.shared.dto.error.FieldError;
 import com.benjamerc.spring_security_course.shared.exception.ErrorCode;
+import com.benjamerc.spring_security_course.shared.exception.InvalidCursorException;
 import com.benjamerc.spring_security_course.users.exception.UserNotFoundException;
+import com.benjamerc.spring_security_course.users.model.User;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -14,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -25,6 +28,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -32,6 +36,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String USERNAME_KEY = "(username";
+
     private final ApiErrorBuilder apiErrorBuilder;
 
     // ===================== Security Exceptions =====================
@@ -137,6 +144,19 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ApiError> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, HttpServletRequest request) {
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(apiErrorBuilder.buildError(
+                        ErrorCode.PASSWORD_HASHING_UNAVAILABLE,
+                        ex.getMessage(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        request.getRequestURI()
+                ));
+    }
+
     // ===================== User Exceptions =====================
 
     @ExceptionHandler({UserNotFoundException.class, UsernameNotFoundException.class})
@@ -177,18 +197,33 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+
+        return apiErrorBuilder.build(
+                ErrorCode.INVALID_CURSOR,
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST,
+                request
+        );
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ApiError> handleDataIntegrityViolation(DataIntegrityViolationException ex, HttpServletRequest request) {
 
-        String message = "Database error";
+        if (ex.getCause() instanceof ConstraintViolationException violation && isUsernameConstraint(violation)) {
 
-        if (ex.getCause() instanceof ConstraintViolationException) {
-            message = "Username already exists";
+            return apiErrorBuilder.build(
+                    ErrorCode.USERNAME_ALREADY_EXISTS,
+                    "Username already exists",
+                    HttpStatus.BAD_REQUEST,
+                    request
+            );
         }
 
         return apiErrorBuilder.build(
                 ErrorCode.DATABASE_ERROR,
-                message,
+                "Database error",
                 HttpStatus.BAD_REQUEST,
                 request
         );
@@ -219,4 +254,16 @@ public class GlobalExceptionHandler {
                 request
         );
     }
+
+    private static boolean isUsernameConstraint(ConstraintViolationException violation) {
+
+        if (violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.USERNAME_UNIQUE_CONSTRAINT)) {
+            return true;
+        }
+
+        return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                && violation.getSQLException().getMessage() != null
+                && violation.getSQLException().getMessage().toLowerCase(Locale.ROOT).contains(USERNAME_KEY);
+    }
 }
@@ -0,0 +1,23 @@
+package com.benjamerc.spring_security_course.shared.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.cluster-events")
+@Data
+public class ClusterEventProperties {
+
+    private Duration pollInterval;
+
+    private Duration lookback;
+
+    private Duration retention;
+
+    private Duration listenTimeout;
+
+    private Duration reconnectDelay;
+}
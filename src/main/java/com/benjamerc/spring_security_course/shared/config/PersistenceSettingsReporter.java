@@ -0,0 +1,82 @@
+package com.benjamerc.spring_security_course.shared.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersistenceSettingsReporter {
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Environment environment;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+
+        HikariDataSource hikari = hikari();
+
+        if (hikari != null) {
+
+            log.info("Connection pool {}: maximumPoolSize={}, minimumIdle={}, connectionTimeout={}ms, idleTimeout={}ms, maxLifetime={}ms, keepaliveTime={}ms, leakDetectionThreshold={}ms, dataSourceProperties={}",
+                    hikari.getPoolName(),
+                    hikari.getMaximumPoolSize(),
+                    hikari.getMinimumIdle(),
+                    hikari.getConnectionTimeout(),
+                    hikari.getIdleTimeout(),
+                    hikari.getMaxLifetime(),
+                    hikari.getKeepaliveTime(),
+                    hikari.getLeakDetectionThreshold(),
+                    dataSourceProperties(hikari));
+        }
+
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+
+        log.info("JPA: openInView={}, showSql={}, formatSql={}, batchSize={}, orderInserts={}, orderUpdates={}, secondLevelCache={}, ddlAuto={}",
+                environment.getProperty("spring.jpa.open-in-view", "true"),
+                properties.getOrDefault("hibernate.show_sql", false),
+                properties.getOrDefault("hibernate.format_sql", false),
+                properties.getOrDefault("hibernate.jdbc.batch_size", "none"),
+                properties.getOrDefault("hibernate.order_inserts", false),
+                properties.getOrDefault("hibernate.order_updates", false),
+                properties.getOrDefault("hibernate.cache.use_second_level_cache", false),
+                properties.getOrDefault("hibernate.hbm2ddl.auto", "none"));
+    }
+
+    private HikariDataSource hikari() {
+
+        try {
+
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+
+        } catch (SQLException e) {
+
+            return null;
+        }
+    }
+
+    private static Map<String, Object> dataSourceProperties(HikariDataSource hikari) {
+
+        Map<String, Object> properties = new TreeMap<>();
+
+        hikari.getDataSourceProperties().forEach((key, value) -> {
+            if (!key.toString().toLowerCase().contains("password")) {
+                properties.put(key.toString(), value);
+            }
+        });
+
+        return properties;
+    }
+}
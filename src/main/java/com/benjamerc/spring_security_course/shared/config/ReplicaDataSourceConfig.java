@@ -0,0 +1,78 @@
+package com.benjamerc.spring_security_course.shared.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties properties, MeterRegistry meterRegistry) {
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<String> urls = properties.getUrls();
+
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.put("replica-" + i, replica("replica-" + i, urls.get(i), dataSourceProperties, properties));
+        }
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicas,
+                properties.getMaxLag(),
+                properties.getLagQuery(),
+                meterRegistry
+        );
+
+        routingDataSource.checkReplicas();
+
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource replica(String name, String url, DataSourceProperties dataSourceProperties, ReplicaProperties properties) {
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName(name);
+        replica.setJdbcUrl(url);
+        replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        replica.setUsername(Optional.ofNullable(properties.getUsername()).filter(u -> !u.isBlank()).orElse(dataSourceProperties.determineUsername()));
+        replica.setPassword(Optional.ofNullable(properties.getPassword()).filter(p -> !p.isBlank()).orElse(dataSourceProperties.determinePassword()));
+        replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        replica.setInitializationFailTimeout(-1);
+        replica.setReadOnly(true);
+
+        return replica;
+    }
+}
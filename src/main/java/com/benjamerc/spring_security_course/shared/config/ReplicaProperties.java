@@ -0,0 +1,33 @@
+package com.benjamerc.spring_security_course.shared.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.datasource.replicas")
+@Data
+public class ReplicaProperties {
+
+    private boolean enabled;
+
+    private List<String> urls = new ArrayList<>();
+
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize;
+
+    private Duration connectionTimeout;
+
+    private Duration maxLag;
+
+    private String lagQuery;
+
+    private Duration healthCheckInterval;
+}
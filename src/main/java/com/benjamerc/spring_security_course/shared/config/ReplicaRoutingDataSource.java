@@ -0,0 +1,149 @@
+package com.benjamerc.spring_security_course.shared.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter fallbackCounter;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    String lagQuery, MeterRegistry meterRegistry) {
+
+        this.replicas = Map.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.primaryCounter = routingCounter(meterRegistry, "primary");
+        this.replicaCounter = routingCounter(meterRegistry, "replica");
+        this.fallbackCounter = routingCounter(meterRegistry, "fallback");
+
+        Gauge.builder("datasource.replicas.healthy", this, dataSource -> dataSource.healthyReplicas.size())
+                .description("Read replicas currently eligible for read-only transactions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+
+            primaryCounter.increment();
+
+            return PRIMARY;
+        }
+
+        List<String> candidates = healthyReplicas;
+
+        if (candidates.isEmpty()) {
+
+            fallbackCounter.increment();
+
+            return PRIMARY;
+        }
+
+        replicaCounter.increment();
+
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.datasource.replicas.health-check-interval}",
+            initialDelayString = "${application.datasource.replicas.health-check-interval}"
+    )
+    public void checkReplicas() {
+
+        healthyReplicas = replicas.entrySet().stream()
+                .filter(replica -> isHealthy(replica.getKey(), replica.getValue()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    public List<String> getHealthyReplicas() {
+
+        return healthyReplicas;
+    }
+
+    public void close() {
+
+        replicas.forEach((name, replica) -> {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica {}: {}", name, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private boolean isHealthy(String name, DataSource replica) {
+
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+
+            double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+
+                log.warn("Replica {} is {}s behind the primary, routing reads to the primary", name, lagSeconds);
+
+                return false;
+            }
+
+            return true;
+
+        } catch (SQLException e) {
+
+            log.warn("Replica {} failed its health check: {}", name, e.getMessage());
+
+            return false;
+        }
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target) {
+
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out by the replica routing data source")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
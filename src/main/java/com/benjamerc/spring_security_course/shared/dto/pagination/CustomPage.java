@@ -12,16 +12,18 @@ public class CustomPage<T> {
 
     private List<T> content;
 
-    private int pageNumber;
+    private Integer pageNumber;
 
     private int pageSize;
 
-    private long totalElements;
+    private Long totalElements;
 
-    private int totalPages;
+    private Integer totalPages;
 
     private boolean lastPage;
 
+    private String nextCursor;
+
     public static <T> CustomPage<T> from(Page<T> page) {
 
         return new CustomPage<>(
@@ -30,7 +32,23 @@ public class CustomPage<T> {
                 page.getSize(),
                 page.getTotalElements(),
                 page.getTotalPages(),
-                page.isLast()
+                page.isLast(),
+                null
+        );
+    }
+
+    public static <T> CustomPage<T> keyset(List<T> content, int pageSize, Long totalElements, String nextCursor) {
+
+        Integer totalPages = totalElements == null ? null : (int) Math.ceil((double) totalElements / pageSize);
+
+        return new CustomPage<>(
+                content,
+                null,
+                pageSize,
+                totalElements,
+                totalPages,
+                nextCursor == null,
+                nextCursor
         );
     }
 }
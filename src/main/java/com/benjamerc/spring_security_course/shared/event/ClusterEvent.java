@@ -0,0 +1,21 @@
+package com.benjamerc.spring_security_course.shared.event;
+
+import java.time.Instant;
+
+public record ClusterEvent(ClusterEventType type, Long userId, Instant notBefore) {
+
+    public static ClusterEvent accessTokensRevoked(Long userId, Instant notBefore) {
+
+        return new ClusterEvent(ClusterEventType.ACCESS_TOKENS_REVOKED, userId, notBefore);
+    }
+
+    public static ClusterEvent userUpdated(Long userId) {
+
+        return new ClusterEvent(ClusterEventType.USER_UPDATED, userId, null);
+    }
+
+    public static ClusterEvent userDeleted(Long userId) {
+
+        return new ClusterEvent(ClusterEventType.USER_DELETED, userId, null);
+    }
+}
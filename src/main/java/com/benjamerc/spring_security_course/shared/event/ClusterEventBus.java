@@ -0,0 +1,226 @@
+package com.benjamerc.spring_security_course.shared.event;
+
+import com.benjamerc.spring_security_course.shared.config.ClusterEventProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class ClusterEventBus {
+
+    public static final String CHANNEL = "cluster_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ClusterEventProperties properties;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final boolean postgres;
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Instant watermark;
+    private Set<Long> seen = Set.of();
+
+    public ClusterEventBus(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher applicationEventPublisher, ClusterEventProperties properties,
+                           DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.properties = properties;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.postgres = dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+
+        this.publishedCounter = Counter.builder("cluster_events.published")
+                .description("Cluster events written for other nodes")
+                .register(meterRegistry);
+
+        this.receivedCounter = Counter.builder("cluster_events.received")
+                .description("Cluster events from other nodes applied locally")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+
+        watermark = jdbcTemplate.queryForObject("select current_timestamp", OffsetDateTime.class).toInstant();
+    }
+
+    public boolean isPostgres() {
+
+        return postgres;
+    }
+
+    public void publish(ClusterEvent event) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            write(event);
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                write(event);
+            }
+        });
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.cluster-events.poll-interval}",
+            initialDelayString = "${application.cluster-events.poll-interval}"
+    )
+    public void poll() {
+
+        lock.lock();
+
+        try {
+
+            List<ReceivedEvent> events = jdbcTemplate.query(
+                    "select id, type, user_id, not_before, origin, created_at from cluster_events where created_at > ? order by id",
+                    ClusterEventBus::toReceivedEvent,
+                    watermark.minus(properties.getLookback()).atOffset(ZoneOffset.UTC)
+            );
+
+            Set<Long> window = new HashSet<>();
+
+            for (ReceivedEvent received : events) {
+
+                window.add(received.id());
+
+                if (received.createdAt().isAfter(watermark)) {
+                    watermark = received.createdAt();
+                }
+
+                if (!seen.contains(received.id()) && !origin.equals(received.origin())) {
+                    dispatch(received);
+                }
+            }
+
+            seen = window;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.cluster-events.retention}",
+            initialDelayString = "${application.cluster-events.retention}"
+    )
+    public void prune() {
+
+        Instant cutoff;
+
+        lock.lock();
+
+        try {
+            cutoff = watermark.minus(properties.getRetention());
+        } finally {
+            lock.unlock();
+        }
+
+        int pruned = jdbcTemplate.update("delete from cluster_events where created_at < ?", cutoff.atOffset(ZoneOffset.UTC));
+
+        if (pruned > 0) {
+            log.info("Pruned {} cluster events", pruned);
+        }
+    }
+
+    private void write(ClusterEvent event) {
+
+        try {
+
+            transactionTemplate.executeWithoutResult(status -> {
+
+                jdbcTemplate.update(
+                        "insert into cluster_events (type, user_id, not_before, origin) values (?, ?, ?, ?)",
+                        event.type().name(),
+                        event.userId(),
+                        event.notBefore() == null ? null : event.notBefore().atOffset(ZoneOffset.UTC),
+                        origin
+                );
+
+                if (postgres) {
+                    jdbcTemplate.execute("NOTIFY " + CHANNEL);
+                }
+            });
+
+            publishedCounter.increment();
+
+        } catch (DataAccessException e) {
+
+            log.warn("Failed to publish cluster event {} for user {}: {}", event.type(), event.userId(), e.getMessage());
+        }
+    }
+
+    private void dispatch(ReceivedEvent received) {
+
+        try {
+
+            applicationEventPublisher.publishEvent(received.event());
+
+            receivedCounter.increment();
+
+        } catch (RuntimeException e) {
+
+            log.warn("Failed to apply cluster event {} for user {}: {}", received.event().type(), received.event().userId(), e.getMessage());
+        }
+    }
+
+    private static ReceivedEvent toReceivedEvent(ResultSet resultSet, int rowNum) throws SQLException {
+
+        OffsetDateTime notBefore = resultSet.getObject("not_before", OffsetDateTime.class);
+
+        ClusterEvent event = new ClusterEvent(
+                ClusterEventType.valueOf(resultSet.getString("type")),
+                resultSet.getLong("user_id"),
+                notBefore == null ? null : notBefore.toInstant()
+        );
+
+        return new ReceivedEvent(
+                resultSet.getLong("id"),
+                event,
+                resultSet.getString("origin"),
+                resultSet.getObject("created_at", OffsetDateTime.class).toInstant()
+        );
+    }
+
+    private record ReceivedEvent(long id, ClusterEvent event, String origin, Instant createdAt) {}
+}
@@ -0,0 +1,7 @@
+package com.benjamerc.spring_security_course.shared.event;
+
+public enum ClusterEventType {
+    ACCESS_TOKENS_REVOKED,
+    USER_UPDATED,
+    USER_DELETED
+}
@@ -0,0 +1,130 @@
+package com.benjamerc.spring_security_course.shared.event;
+
+import com.benjamerc.spring_security_course.shared.config.ClusterEventProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresClusterEventListener {
+
+    private final ClusterEventBus clusterEventBus;
+    private final ClusterEventProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+
+    private Thread thread;
+
+    @PostConstruct
+    void start() {
+
+        if (!clusterEventBus.isPostgres()) {
+            return;
+        }
+
+        running = true;
+
+        thread = Thread.ofPlatform()
+                .name("cluster-events-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+
+        running = false;
+
+        closeConnection();
+
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+
+        while (running) {
+
+            try (Connection listening = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+
+                connection = listening;
+
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + ClusterEventBus.CHANNEL);
+                }
+
+                log.info("Listening for cluster events on channel {}", ClusterEventBus.CHANNEL);
+
+                clusterEventBus.poll();
+
+                PGConnection pgConnection = listening.unwrap(PGConnection.class);
+
+                while (running) {
+
+                    PGNotification[] notifications = pgConnection.getNotifications((int) properties.getListenTimeout().toMillis());
+
+                    if (notifications != null && notifications.length > 0) {
+                        clusterEventBus.poll();
+                    }
+                }
+
+            } catch (SQLException | DataAccessException e) {
+
+                if (running) {
+                    log.warn("Cluster event listener disconnected, retrying in {}: {}", properties.getReconnectDelay(), e.getMessage());
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void sleep() {
+
+        try {
+
+            Thread.sleep(properties.getReconnectDelay());
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void closeConnection() {
+
+        Connection current = connection;
+
+        if (current == null) {
+            return;
+        }
+
+        try {
+
+            current.close();
+
+        } catch (SQLException e) {
+
+            log.debug("Failed to close cluster event listener connection: {}", e.getMessage());
+        }
+    }
+}
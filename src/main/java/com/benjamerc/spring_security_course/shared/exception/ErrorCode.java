@@ -14,7 +14,9 @@ public enum ErrorCode {
     ACCESS_TOKEN_INVALID_SIGNATURE,
     ACCESS_TOKEN_INVALID,
     HASHING_EXCEPTION,
+    PASSWORD_HASHING_UNAVAILABLE,
     DATABASE_ERROR,
+    INVALID_CURSOR,
     BAD_CREDENTIALS,
     AUTHORIZATION_DENIED,
     FORBIDDEN,
@@ -0,0 +1,8 @@
+package com.benjamerc.spring_security_course.shared.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
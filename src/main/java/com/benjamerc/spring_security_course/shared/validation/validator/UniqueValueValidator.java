@@ -1,7 +1,7 @@
 package com.benjamerc.spring_security_course.shared.validation.validator;
 
 import com.benjamerc.spring_security_course.shared.validation.UniqueValue;
-import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.benjamerc.spring_security_course.users.service.UsernameFilter;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import lombok.RequiredArgsConstructor;
@@ -9,15 +9,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UniqueValueValidator implements ConstraintValidator<UniqueValue, String> {
 
-    private final UserRepository userRepository;
+    private final UsernameFilter usernameFilter;
 
     @Override
     public boolean isValid(String username, ConstraintValidatorContext constraintValidatorContext) {
 
-        if (username == null || username.isBlank()) {
-            return true;
-        }
-
-        return !userRepository.existsByUsername(username);
+        return !usernameFilter.isTaken(username);
     }
 }
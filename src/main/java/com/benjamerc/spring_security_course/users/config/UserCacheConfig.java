@@ -0,0 +1,71 @@
+package com.benjamerc.spring_security_course.users.config;
+
+import com.benjamerc.spring_security_course.users.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+
+@Configuration
+public class UserCacheConfig {
+
+    public static final String USER_REGION = User.class.getName();
+    public static final String USER_NATURAL_ID_REGION = USER_REGION + "##NaturalId";
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "application.users.cache", name = "enabled", havingValue = "true")
+    public CacheManager userCacheManager(UserCacheProperties properties, MeterRegistry meterRegistry) {
+
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(URI.create("users"), UserCacheConfig.class.getClassLoader());
+
+        for (String region : List.of(USER_REGION, USER_NATURAL_ID_REGION)) {
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.getTimeToLive().toNanos()));
+            configuration.setStatisticsEnabled(true);
+
+            Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+
+            JCacheMetrics.monitor(meterRegistry, cache);
+        }
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer userCacheHibernatePropertiesCustomizer(ObjectProvider<CacheManager> userCacheManager) {
+
+        return hibernateProperties -> {
+
+            CacheManager cacheManager = userCacheManager.getIfAvailable();
+
+            if (cacheManager == null) {
+
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+
+                return;
+            }
+
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
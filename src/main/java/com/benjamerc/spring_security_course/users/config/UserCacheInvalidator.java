@@ -0,0 +1,31 @@
+package com.benjamerc.spring_security_course.users.config;
+
+import com.benjamerc.spring_security_course.shared.event.ClusterEvent;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventType;
+import com.benjamerc.spring_security_course.users.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onClusterEvent(ClusterEvent event) {
+
+        if (event.type() != ClusterEventType.USER_UPDATED && event.type() != ClusterEventType.USER_DELETED) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+
+        cache.evictEntityData(User.class, event.userId());
+        cache.evictNaturalIdData(User.class);
+    }
+}
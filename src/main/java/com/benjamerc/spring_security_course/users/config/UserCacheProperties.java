@@ -0,0 +1,19 @@
+package com.benjamerc.spring_security_course.users.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.users.cache")
+@Data
+public class UserCacheProperties {
+
+    private boolean enabled;
+
+    private long maximumSize;
+
+    private Duration timeToLive;
+}
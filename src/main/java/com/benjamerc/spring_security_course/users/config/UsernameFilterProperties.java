@@ -0,0 +1,19 @@
+package com.benjamerc.spring_security_course.users.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.users.username-filter")
+@Data
+public class UsernameFilterProperties {
+
+    private int expectedInsertions;
+
+    private double falsePositiveProbability;
+
+    private Duration rebuildInterval;
+}
@@ -1,7 +1,9 @@
 package com.benjamerc.spring_security_course.users.controller;
 
 import com.benjamerc.spring_security_course.shared.dto.pagination.CustomPage;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserImportRequest;
 import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserImportResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
 import com.benjamerc.spring_security_course.users.service.AdminUserService;
@@ -10,9 +12,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -24,11 +29,34 @@ public class AdminUserController {
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CustomPage<AdminUserSummaryResponse>> getAllUsers(
-            @PageableDefault(page = 0, size = 20, sort = "username", direction = Sort.Direction.ASC) Pageable pageable) {
+            @PageableDefault(page = 0, size = 20, sort = "username", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        if (cursor != null) {
+
+            return ResponseEntity.ok(adminUserService.getAllUsers(cursor, pageable.getPageSize(), includeTotal));
+        }
 
         return ResponseEntity.ok(adminUserService.getAllUsers(pageable));
     }
 
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(adminUserService::exportUsers);
+    }
+
+    @PostMapping("/users/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminUserImportResponse> importUsers(@RequestBody @Valid AdminUserImportRequest request) {
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(adminUserService.importUsers(request));
+    }
+
     @GetMapping("/users/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AdminUserResponse> getUserById(@PathVariable("id") Long id) {
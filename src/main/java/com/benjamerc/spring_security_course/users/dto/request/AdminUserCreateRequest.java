@@ -0,0 +1,26 @@
+package com.benjamerc.spring_security_course.users.dto.request;
+
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.shared.validation.NotAdminRole;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record AdminUserCreateRequest(
+
+        @Email(message = "Username must be a valid email address")
+        @Size(max = 100, message = "Username cannot exceed 100 characters")
+        @NotBlank(message = "Username cannot be blank")
+        String username,
+
+        @Size(min = 3, max = 100, message = "Name must be between 3 and 100 characters")
+        @NotBlank(message = "Name cannot be blank")
+        String name,
+
+        @Size(min = 6, max = 100, message = "Password must be between 6 and 100 characters")
+        @NotBlank(message = "Password cannot be blank")
+        String password,
+
+        @NotAdminRole
+        Role role
+) {}
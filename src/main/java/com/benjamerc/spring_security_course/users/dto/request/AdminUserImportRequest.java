@@ -0,0 +1,14 @@
+package com.benjamerc.spring_security_course.users.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record AdminUserImportRequest(
+
+        @NotEmpty(message = "Users cannot be empty")
+        @Size(max = 500, message = "Cannot import more than 500 users at once")
+        List<@Valid AdminUserCreateRequest> users
+) {}
@@ -0,0 +1,3 @@
+package com.benjamerc.spring_security_course.users.dto.response;
+
+public record AdminUserImportResponse(int imported) {}
@@ -7,23 +7,33 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.USERNAME_UNIQUE_CONSTRAINT, columnNames = "username"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class User {
 
+    public static final String USERNAME_UNIQUE_CONSTRAINT = "uk_users_username";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, length = 100, nullable = false)
+    @NaturalId(mutable = true)
+    @Column(length = 100, nullable = false)
     private String username;
 
     @Column(length = 100, nullable = false)
@@ -0,0 +1,10 @@
+package com.benjamerc.spring_security_course.users.repository;
+
+import com.benjamerc.spring_security_course.users.model.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByNaturalId(String username);
+}
@@ -1,13 +1,58 @@
 package com.benjamerc.spring_security_course.users.repository;
 
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
+import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
 import com.benjamerc.spring_security_course.users.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
+
+    int EXPORT_FETCH_SIZE = 1000;
 
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Query(value = "select new com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse(u.id, u.username, u.name, u.role) from User u", countQuery = "select count(u) from User u")
+    Page<AdminUserSummaryResponse> findAllSummaries(Pageable pageable);
+
+    @Query("select new com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse(u.id, u.username, u.name, u.role) from User u order by u.username asc, u.id asc")
+    List<AdminUserSummaryResponse> findSummaryPage(Limit limit);
+
+    @Query("select new com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse(u.id, u.username, u.name, u.role) from User u where u.username >= :username and (u.username > :username or u.id > :id) order by u.username asc, u.id asc")
+    List<AdminUserSummaryResponse> findSummaryPageAfter(@Param("username") String username, @Param("id") Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select new com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse(u.id, u.username, u.name, u.role) from User u order by u.id asc")
+    Stream<AdminUserSummaryResponse> streamAllSummaries();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
+
+    @Query("select new com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse(u.id, u.username, u.name, u.role) from User u where u.id = :id")
+    Optional<AdminUserResponse> findAdminUserById(@Param("id") Long id);
+
+    @Query("select new com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse(u.username, u.name) from User u where u.id = :id")
+    Optional<UserProfileResponse> findProfileById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldPassword") String oldPassword, @Param("newPassword") String newPassword);
 }
@@ -1,15 +1,26 @@
 package com.benjamerc.spring_security_course.users.service;
 
 import com.benjamerc.spring_security_course.shared.dto.pagination.CustomPage;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserImportRequest;
 import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserImportResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface AdminUserService {
 
     CustomPage<AdminUserSummaryResponse> getAllUsers(Pageable pageable);
 
+    CustomPage<AdminUserSummaryResponse> getAllUsers(String cursor, int size, boolean includeTotal);
+
+    void exportUsers(OutputStream outputStream) throws IOException;
+
+    AdminUserImportResponse importUsers(AdminUserImportRequest request);
+
     AdminUserResponse getUserById(Long id);
 
     AdminUserResponse partialUpdate(Long id, AdminUserUpdateRequest request);
@@ -1,8 +1,10 @@
 package com.benjamerc.spring_security_course.users.service;
 
-import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
 import com.benjamerc.spring_security_course.shared.dto.pagination.CustomPage;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserCreateRequest;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserImportRequest;
 import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserImportResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
 import com.benjamerc.spring_security_course.users.exception.UserNotFoundException;
@@ -10,15 +12,29 @@ import com.benjamerc.spring_security_course.users.model.User;
 import com.benjamerc.spring_security_course.users.mapper.AdminUserMapper;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
 import com.benjamerc.spring_security_course.authentication.security.RefreshTokenService;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
+import com.benjamerc.spring_security_course.security.core.BoundedPasswordEncoder;
+import com.benjamerc.spring_security_course.shared.event.ClusterEvent;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
 import com.benjamerc.spring_security_course.security.core.Role;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,36 +43,105 @@ public class AdminUserServiceImpl implements AdminUserService {
     private final UserRepository userRepository;
     private final AdminUserMapper adminUserMapper;
     private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRevocations accessTokenRevocations;
+    private final ClusterEventBus clusterEventBus;
+    private final ObjectMapper objectMapper;
+    private final UsernameFilter usernameFilter;
+    private final BoundedPasswordEncoder passwordEncoder;
 
     @Value("${pagination.max-page-size}")
     private int maxPageSize;
 
     @Override
+    @Transactional(readOnly = true)
     public CustomPage<AdminUserSummaryResponse> getAllUsers(Pageable pageable) {
 
         Pageable safePageable = getSafePageable(pageable);
 
-        Page<AdminUserSummaryResponse> page = userRepository.findAll(safePageable)
-                .map(adminUserMapper::toAdminUserSummaryResponse);
+        Page<AdminUserSummaryResponse> page = userRepository.findAllSummaries(safePageable);
 
         return CustomPage.from(page);
     }
 
     @Override
-    public AdminUserResponse getUserById(Long id) {
+    @Transactional(readOnly = true)
+    public CustomPage<AdminUserSummaryResponse> getAllUsers(String cursor, int size, boolean includeTotal) {
 
-        User user = getUserByIdOrThrow(id);
+        int safeSize = Math.min(size, maxPageSize);
+        Limit limit = Limit.of(safeSize + 1);
+
+        List<AdminUserSummaryResponse> content = cursor == null || cursor.isBlank()
+                ? userRepository.findSummaryPage(limit)
+                : findSummaryPageAfter(UserCursor.decode(cursor), limit);
 
-        return adminUserMapper.toAdminUserResponse(user);
+        String nextCursor = null;
+
+        if (content.size() > safeSize) {
+
+            content = content.subList(0, safeSize);
+            nextCursor = UserCursor.of(content.get(safeSize - 1)).encode();
+        }
+
+        Long totalElements = includeTotal ? userRepository.count() : null;
+
+        return CustomPage.keyset(content, safeSize, totalElements, nextCursor);
     }
 
     @Override
-    public AdminUserResponse partialUpdate(Long id, AdminUserUpdateRequest request) {
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream outputStream) throws IOException {
+
+        try (Stream<AdminUserSummaryResponse> users = userRepository.streamAllSummaries();
+             JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 
-        if (userRepository.existsByUsername(request.username())) {
+            Iterator<AdminUserSummaryResponse> iterator = users.iterator();
+            int written = 0;
 
-            throw new UsernameAlreadyExistsException("Username already exists");
+            while (iterator.hasNext()) {
+
+                generator.writeObject(iterator.next());
+                generator.writeRaw('\n');
+
+                if (++written % UserRepository.EXPORT_FETCH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
         }
+    }
+
+    @Override
+    public AdminUserImportResponse importUsers(AdminUserImportRequest request) {
+
+        List<AdminUserCreateRequest> requested = request.users();
+
+        List<String> passwords = passwordEncoder.encodeAll(requested.stream()
+                .map(AdminUserCreateRequest::password)
+                .toList());
+
+        List<User> users = IntStream.range(0, requested.size())
+                .mapToObj(i -> toImportedUser(requested.get(i), passwords.get(i)))
+                .toList();
+
+        List<User> imported = userRepository.saveAllAndFlush(users);
+
+        imported.forEach(user -> usernameFilter.add(user.getUsername()));
+
+        return new AdminUserImportResponse(imported.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AdminUserResponse getUserById(Long id) {
+
+        return userRepository.findAdminUserById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+    }
+
+    @Override
+    @Transactional
+    public AdminUserResponse partialUpdate(Long id, AdminUserUpdateRequest request) {
 
         User user = getUserByIdOrThrow(id);
 
@@ -72,23 +157,35 @@ public class AdminUserServiceImpl implements AdminUserService {
                 .filter(r -> r != Role.ADMIN)
                 .ifPresent(user::setRole);
 
+        usernameFilter.add(request.username());
+
+        clusterEventBus.publish(ClusterEvent.userUpdated(user.getId()));
+
         return adminUserMapper.toAdminUserResponse(userRepository.save(user));
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
 
         User user = getUserByIdOrThrow(id);
 
         userRepository.delete(user);
+
+        accessTokenRevocations.revokeAll(user.getId());
+
+        clusterEventBus.publish(ClusterEvent.userDeleted(user.getId()));
     }
 
     @Override
+    @Transactional
     public void logoutAll(Long id) {
 
         User user = getUserByIdOrThrow(id);
 
         refreshTokenService.revokeAllTokensForUser(user);
+
+        accessTokenRevocations.revokeAll(user.getId());
     }
 
     private User getUserByIdOrThrow(Long id) {
@@ -97,6 +194,21 @@ public class AdminUserServiceImpl implements AdminUserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
     }
 
+    private User toImportedUser(AdminUserCreateRequest user, String encodedPassword) {
+
+        return User.builder()
+                .username(user.username())
+                .name(user.name())
+                .password(encodedPassword)
+                .role(Optional.ofNullable(user.role()).orElse(Role.USER))
+                .build();
+    }
+
+    private List<AdminUserSummaryResponse> findSummaryPageAfter(UserCursor cursor, Limit limit) {
+
+        return userRepository.findSummaryPageAfter(cursor.username(), cursor.id(), limit);
+    }
+
     private Pageable getSafePageable(Pageable pageable) {
 
         int size = Math.min(pageable.getPageSize(), maxPageSize);
@@ -0,0 +1,40 @@
+package com.benjamerc.spring_security_course.users.service;
+
+import com.benjamerc.spring_security_course.shared.exception.InvalidCursorException;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+record UserCursor(String username, Long id) {
+
+    static UserCursor of(AdminUserSummaryResponse user) {
+
+        return new UserCursor(user.username(), user.id());
+    }
+
+    static UserCursor decode(String cursor) {
+
+        try {
+
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new InvalidCursorException("Invalid pagination cursor");
+            }
+
+            return new UserCursor(decoded.substring(separator + 1), Long.valueOf(decoded.substring(0, separator)));
+
+        } catch (IllegalArgumentException e) {
+
+            throw new InvalidCursorException("Invalid pagination cursor");
+        }
+    }
+
+    String encode() {
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + username).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,5 @@
 package com.benjamerc.spring_security_course.users.service;
 
-import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
 import com.benjamerc.spring_security_course.users.dto.request.UserPartialUpdateRequest;
 import com.benjamerc.spring_security_course.users.dto.response.UserPartialUpdateResponse;
 import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
@@ -8,11 +7,15 @@ import com.benjamerc.spring_security_course.users.model.User;
 import com.benjamerc.spring_security_course.users.exception.UserNotFoundException;
 import com.benjamerc.spring_security_course.users.mapper.UserMapper;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
+import com.benjamerc.spring_security_course.shared.event.ClusterEvent;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
 import com.benjamerc.spring_security_course.security.core.CustomUserDetails;
 import com.benjamerc.spring_security_course.authentication.security.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -23,23 +26,24 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRevocations accessTokenRevocations;
+    private final ClusterEventBus clusterEventBus;
+    private final UsernameFilter usernameFilter;
 
     @Override
+    @Transactional(readOnly = true)
     public UserProfileResponse userProfile(@AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        User user = getUserOrThrow(userDetails);
+        Long id = userDetails.getUser().getId();
 
-        return userMapper.toUserProfileResponse(user);
+        return userRepository.findProfileById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
     }
 
     @Override
+    @Transactional
     public UserPartialUpdateResponse updateProfile(@AuthenticationPrincipal CustomUserDetails userDetails, UserPartialUpdateRequest request) {
 
-        if (userRepository.existsByUsername(request.username())) {
-
-            throw new UsernameAlreadyExistsException("Username already exists");
-        }
-
         User user = getUserOrThrow(userDetails);
 
         Optional.ofNullable(request.username())
@@ -50,23 +54,35 @@ public class UserServiceImpl implements UserService {
                 .filter(n -> !n.isBlank())
                 .ifPresent(user::setName);
 
+        usernameFilter.add(request.username());
+
+        clusterEventBus.publish(ClusterEvent.userUpdated(user.getId()));
+
         return userMapper.toUserPartialUpdateResponse(userRepository.save(user));
     }
 
     @Override
+    @Transactional
     public void deleteAccount(@AuthenticationPrincipal CustomUserDetails userDetails) {
 
         User user = getUserOrThrow(userDetails);
 
         userRepository.delete(user);
+
+        accessTokenRevocations.revokeAll(user.getId());
+
+        clusterEventBus.publish(ClusterEvent.userDeleted(user.getId()));
     }
 
     @Override
+    @Transactional
     public void logoutAll(CustomUserDetails userDetails) {
 
         User user = getUserOrThrow(userDetails);
 
         refreshTokenService.revokeAllTokensForUser(user);
+
+        accessTokenRevocations.revokeAll(user.getId());
     }
 
     private User getUserOrThrow(CustomUserDetails userDetails) {
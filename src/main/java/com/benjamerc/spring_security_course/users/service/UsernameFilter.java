@@ -0,0 +1,254 @@
+package com.benjamerc.spring_security_course.users.service;
+
+import com.benjamerc.spring_security_course.users.config.UsernameFilterProperties;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class UsernameFilter {
+
+    private final UserRepository userRepository;
+    private final UsernameFilterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter absentCounter;
+    private final Counter presentCounter;
+    private final Counter falsePositiveCounter;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter pending;
+
+    public UsernameFilter(UserRepository userRepository, UsernameFilterProperties properties,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+
+        this.userRepository = userRepository;
+        this.properties = properties;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.current = BloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+
+        this.absentCounter = lookupCounter(meterRegistry, "absent");
+        this.presentCounter = lookupCounter(meterRegistry, "present");
+        this.falsePositiveCounter = lookupCounter(meterRegistry, "false_positive");
+
+        Gauge.builder("users.username_filter.memory", this, filter -> filter.current.memoryBytes())
+                .description("Heap used by the username Bloom filter bit array")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        Gauge.builder("users.username_filter.expected_false_positive_probability", this, filter -> filter.current.expectedFalsePositiveProbability())
+                .description("False-positive probability implied by the current fill of the username Bloom filter")
+                .register(meterRegistry);
+
+        Gauge.builder("users.username_filter.entries", this, filter -> filter.current.entries())
+                .description("Usernames added to the username Bloom filter since the last rebuild")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.users.username-filter.rebuild-interval}",
+            initialDelayString = "${application.users.username-filter.rebuild-interval}"
+    )
+    public void rebuild() {
+
+        if (!rebuilding.compareAndSet(false, true)) {
+
+            log.info("Username filter rebuild already running, skipping");
+
+            return;
+        }
+
+        try {
+
+            long users = userRepository.count();
+            long capacity = Math.max(properties.getExpectedInsertions(), users * 2);
+
+            BloomFilter rebuilt = BloomFilter.create(capacity, properties.getFalsePositiveProbability());
+
+            pending = rebuilt;
+
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                    usernames.forEach(rebuilt::put);
+                }
+            });
+
+            current = rebuilt;
+
+            log.info("Rebuilt username filter with {} usernames ({} bytes)", rebuilt.entries(), rebuilt.memoryBytes());
+
+        } finally {
+
+            pending = null;
+            rebuilding.set(false);
+        }
+    }
+
+    public boolean isTaken(String username) {
+
+        if (username == null || username.isBlank()) {
+            return false;
+        }
+
+        if (!current.mightContain(username)) {
+
+            absentCounter.increment();
+
+            return false;
+        }
+
+        if (userRepository.existsByUsername(username)) {
+
+            presentCounter.increment();
+
+            return true;
+        }
+
+        falsePositiveCounter.increment();
+
+        return false;
+    }
+
+    public void add(String username) {
+
+        if (username == null || username.isBlank()) {
+            return;
+        }
+
+        current.put(username);
+
+        BloomFilter building = pending;
+
+        if (building != null) {
+            building.put(username);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+
+        return Counter.builder("users.username_filter.lookups")
+                .description("Username existence checks answered by the Bloom filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class BloomFilter {
+
+        private static final long SEED = 0x9E3779B97F4A7C15L;
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashFunctions;
+        private final AtomicLong entries = new AtomicLong();
+
+        private BloomFilter(long bits, int hashFunctions) {
+
+            this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+            this.bits = (long) words.length() * 64;
+            this.hashFunctions = hashFunctions;
+        }
+
+        static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+
+            long n = Math.max(expectedInsertions, 1);
+            long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))));
+            int hashFunctions = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+
+            return new BloomFilter(bits, hashFunctions);
+        }
+
+        void put(String value) {
+
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ SEED);
+
+            for (int i = 0; i < hashFunctions; i++) {
+
+                long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+
+                words.getAndUpdate(word, w -> w | mask);
+            }
+
+            entries.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ SEED);
+
+            for (int i = 0; i < hashFunctions; i++) {
+
+                long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        long entries() {
+
+            return entries.get();
+        }
+
+        long memoryBytes() {
+
+            return (long) words.length() * Long.BYTES;
+        }
+
+        double expectedFalsePositiveProbability() {
+
+            return Math.pow(1 - Math.exp(-(double) hashFunctions * entries.get() / bits), hashFunctions);
+        }
+
+        private static long hash(String value) {
+
+            long hash = 0xCBF29CE484222325L;
+
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001B3L;
+            }
+
+            return mix(hash);
+        }
+
+        private static long mix(long z) {
+
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+-- Mirrors the PostgreSQL baseline. The unique constraints carry the names
+-- PostgreSQL gives inline UNIQUE columns, since H2 generates its own.
+
+CREATE TABLE refresh_tokens (
+    revoked boolean NOT NULL,
+    expiry_date timestamp(6) with time zone NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id bigint NOT NULL,
+    session uuid NOT NULL,
+    token varchar(88) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT refresh_tokens_token_key UNIQUE (token)
+);
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(100) NOT NULL,
+    password varchar(100) NOT NULL,
+    username varchar(100) NOT NULL,
+    role varchar(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    PRIMARY KEY (id),
+    CONSTRAINT users_username_key UNIQUE (username)
+);
+
+ALTER TABLE IF EXISTS refresh_tokens
+    ADD CONSTRAINT FK1lih5y2npsf8u5o3vhdb9y0os
+    FOREIGN KEY (user_id)
+    REFERENCES users;
@@ -0,0 +1,20 @@
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS secret_hash varbinary(32);
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS revoked_at timestamp(6) with time zone;
+ALTER TABLE refresh_tokens ALTER COLUMN token DROP NOT NULL;
+
+CREATE TABLE IF NOT EXISTS signing_keys (
+    kid varchar(36) NOT NULL,
+    activates_at timestamp(6) with time zone NOT NULL,
+    algorithm varchar(10) NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    expires_at timestamp(6) with time zone NOT NULL,
+    private_key varbinary(512) NOT NULL,
+    public_key varbinary(512) NOT NULL,
+    PRIMARY KEY (kid)
+);
+
+-- H2 keeps the old index name on RENAME CONSTRAINT and reports violations by
+-- index, so the constraint is recreated instead.
+
+ALTER TABLE users DROP CONSTRAINT users_username_key;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
@@ -0,0 +1,8 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users);
+
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE refresh_tokens_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM refresh_tokens);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE refresh_tokens ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,8 @@
+-- H2 has no partial indexes, so the active-session index also carries revoked.
+-- H2 already indexes the user_id foreign key.
+
+CREATE INDEX idx_refresh_tokens_user_session_active ON refresh_tokens (user_id, session, revoked);
+
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens (expiry_date);
+
+CREATE INDEX idx_refresh_tokens_revoked_at ON refresh_tokens (revoked_at);
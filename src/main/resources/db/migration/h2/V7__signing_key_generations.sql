@@ -0,0 +1,6 @@
+-- Each rotation claims the next generation number; the unique constraint lets
+-- only one node insert a key per generation. Keys created before this column
+-- existed keep a null generation.
+
+ALTER TABLE signing_keys ADD COLUMN generation bigint;
+ALTER TABLE signing_keys ADD CONSTRAINT uk_signing_keys_generation UNIQUE (generation);
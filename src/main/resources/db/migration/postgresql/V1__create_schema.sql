@@ -0,0 +1,27 @@
+-- Schema exactly as Hibernate generated it before migrations were introduced.
+-- Existing databases are baselined at this version and only receive later
+-- migrations, so anything the entities need beyond this belongs in V2+.
+
+CREATE TABLE refresh_tokens (
+    revoked boolean NOT NULL,
+    expiry_date timestamp(6) with time zone NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id bigint NOT NULL,
+    session uuid NOT NULL,
+    token varchar(88) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(100) NOT NULL,
+    password varchar(100) NOT NULL,
+    username varchar(100) NOT NULL UNIQUE,
+    role varchar(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE IF EXISTS refresh_tokens
+    ADD CONSTRAINT FK1lih5y2npsf8u5o3vhdb9y0os
+    FOREIGN KEY (user_id)
+    REFERENCES users;
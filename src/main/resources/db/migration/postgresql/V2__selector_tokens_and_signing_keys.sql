@@ -0,0 +1,46 @@
+-- Brings baselined databases up to the entities: selector/verifier refresh
+-- tokens, bulk revocation timestamps, persisted signing keys and a named
+-- username constraint. Databases that ran ddl-auto: update after those
+-- changes may already have some of this, so every step is idempotent.
+
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS secret_hash bytea;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS revoked_at timestamp(6) with time zone;
+ALTER TABLE refresh_tokens ALTER COLUMN token DROP NOT NULL;
+
+CREATE TABLE IF NOT EXISTS signing_keys (
+    kid varchar(36) NOT NULL,
+    activates_at timestamp(6) with time zone NOT NULL,
+    algorithm varchar(10) NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    expires_at timestamp(6) with time zone NOT NULL,
+    private_key bytea NOT NULL,
+    public_key bytea NOT NULL,
+    PRIMARY KEY (kid)
+);
+
+DO $$
+DECLARE
+    unnamed record;
+BEGIN
+    FOR unnamed IN
+        SELECT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'users'::regclass
+          AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1
+          AND a.attname = 'username'
+          AND c.conname <> 'uk_users_username'
+    LOOP
+        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'users'::regclass AND conname = 'uk_users_username') THEN
+            EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', unnamed.conname);
+        ELSE
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO uk_users_username', unnamed.conname);
+        END IF;
+    END LOOP;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'users'::regclass AND conname = 'uk_users_username') THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+    END IF;
+END
+$$;
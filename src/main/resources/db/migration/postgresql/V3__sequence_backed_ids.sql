@@ -0,0 +1,16 @@
+-- Moves users and refresh_tokens from identity columns to the pooled sequences
+-- used by Hibernate (allocation size 50, pooled-lo). Safe to re-run against a
+-- database where these steps were already applied by hand.
+
+LOCK TABLE users, refresh_tokens IN EXCLUSIVE MODE;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE refresh_tokens_seq INCREMENT BY 50;
+SELECT setval('refresh_tokens_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM refresh_tokens), false);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE refresh_tokens ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,14 @@
+-- Built concurrently so the table stays writable; Flyway runs this script
+-- outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user_session_active
+    ON refresh_tokens (user_id, session) WHERE revoked = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user
+    ON refresh_tokens (user_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_expiry_date
+    ON refresh_tokens (expiry_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_revoked_at
+    ON refresh_tokens (revoked_at) WHERE revoked = true;
@@ -0,0 +1,7 @@
+CREATE TABLE access_token_revocations (
+    user_id bigint NOT NULL,
+    not_before timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (user_id)
+);
+
+CREATE INDEX idx_access_token_revocations_not_before ON access_token_revocations (not_before);
@@ -0,0 +1,11 @@
+CREATE TABLE cluster_events (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    type varchar(32) NOT NULL,
+    user_id bigint NOT NULL,
+    not_before timestamp(6) with time zone,
+    origin varchar(36) NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL DEFAULT current_timestamp,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_cluster_events_created_at ON cluster_events (created_at);
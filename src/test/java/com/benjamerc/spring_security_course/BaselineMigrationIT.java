@@ -0,0 +1,145 @@
+package com.benjamerc.spring_security_course;
+
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
+import com.benjamerc.spring_security_course.authentication.dto.request.AuthRegisterRequest;
+import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
+import com.benjamerc.spring_security_course.security.core.TokenUtils;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.model.User;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class BaselineMigrationIT {
+
+    private static final String URL = "jdbc:h2:mem:baseline;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+
+    private static final long EXISTING_USER_ID = 120;
+    private static final long EXISTING_REFRESH_TOKEN_ID = 340;
+    private static final String LEGACY_REFRESH_TOKEN = "legacy-refresh-token-issued-before-migrations";
+
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private Flyway flyway;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baselineDatabase(DynamicPropertyRegistry registry) {
+
+        DataSource dataSource = new DriverManagerDataSource(URL, "sa", "password");
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__create_schema.sql")).execute(dataSource);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.update(
+                "insert into users (id, name, password, username, role) values (?, ?, ?, ?, 'USER')",
+                EXISTING_USER_ID,
+                UserTestDataProvider.USER_NAME,
+                new BCryptPasswordEncoder().encode(UserTestDataProvider.PASSWORD),
+                UserTestDataProvider.USER_USERNAME
+        );
+
+        jdbcTemplate.update(
+                "insert into refresh_tokens (id, revoked, expiry_date, user_id, session, token) values (?, false, ?, ?, ?, ?)",
+                EXISTING_REFRESH_TOKEN_ID,
+                Timestamp.from(Instant.now().plus(1, ChronoUnit.DAYS)),
+                EXISTING_USER_ID,
+                UUID.randomUUID(),
+                TokenUtils.hashSHA256(LEGACY_REFRESH_TOKEN)
+        );
+
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void shouldBaselineExistingSchemaAndApplyEveryLaterMigration() {
+
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(jdbcTemplate.queryForList("select \"version\" from \"flyway_schema_history\" where \"type\" = 'BASELINE'", String.class))
+                .containsExactly("1");
+    }
+
+    @Test
+    void shouldAuthenticateExistingUserAndRefreshLegacyToken() {
+
+        ResponseEntity<AuthAuthenticateResponse> authenticated = restTemplate.postForEntity(
+                "/api/auth/authenticate",
+                AuthTestDataProvider.authAuthenticateRequest(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD),
+                AuthAuthenticateResponse.class
+        );
+
+        assertThat(authenticated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(authenticated.getBody()).isNotNull();
+
+        ResponseEntity<AuthAuthenticateResponse> refreshed = restTemplate.postForEntity(
+                "/api/auth/refresh",
+                AuthTestDataProvider.authRefreshTokenRequest(authenticated.getBody().refreshToken()),
+                AuthAuthenticateResponse.class
+        );
+
+        assertThat(refreshed.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<AuthAuthenticateResponse> legacy = restTemplate.postForEntity(
+                "/api/auth/refresh",
+                AuthTestDataProvider.authRefreshTokenRequest(LEGACY_REFRESH_TOKEN),
+                AuthAuthenticateResponse.class
+        );
+
+        assertThat(legacy.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldAllocateNewIdsAboveExistingRows() {
+
+        AuthRegisterRequest request = AuthTestDataProvider.authRegisterRequest(
+                UUID.randomUUID() + "@email.com",
+                UserTestDataProvider.USER_NAME,
+                UserTestDataProvider.PASSWORD
+        );
+
+        assertThat(restTemplate.postForEntity("/api/auth/register", request, Void.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        assertThat(userRepository.findByUsername(request.username()))
+                .get()
+                .extracting(User::getId)
+                .satisfies(id -> assertThat(id).isGreaterThan(EXISTING_USER_ID));
+    }
+
+    @Test
+    void shouldNameUsernameConstraintAndRelaxLegacyTokenColumn() {
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.table_constraints where table_name = 'USERS' and constraint_name = 'UK_USERS_USERNAME'",
+                Long.class
+        )).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select is_nullable from information_schema.columns where table_name = 'REFRESH_TOKENS' and column_name = 'TOKEN'",
+                String.class
+        )).isEqualTo("YES");
+    }
+}
@@ -0,0 +1,180 @@
+package com.benjamerc.spring_security_course;
+
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.shared.dto.pagination.CustomPage;
+import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
+import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + ConnectionPoolLoadIT.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + ConnectionPoolLoadIT.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+public class ConnectionPoolLoadIT {
+
+    private static final int CLIENTS = 64;
+    private static final int REQUESTS_PER_CLIENT = 10;
+
+    static final int POOL_SIZE = 2;
+    private static final int SLOW_CLIENTS = POOL_SIZE * 4;
+    private static final Duration SLOW_SERIALIZATION = Duration.ofMillis(400);
+
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private IntegrationTestHelper helper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private String userToken;
+    private String adminToken;
+    private Long userId;
+
+    @BeforeEach
+    void setup() {
+
+        userRepository.deleteAll();
+
+        userId = helper.createUser(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.USER_NAME, UserTestDataProvider.PASSWORD, Role.USER).getId();
+        helper.createUser(UserTestDataProvider.ADMIN_USERNAME, UserTestDataProvider.ADMIN_NAME, UserTestDataProvider.PASSWORD, Role.ADMIN);
+
+        userToken = helper.authenticateAndGetTokens(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD).accessToken();
+        adminToken = helper.authenticateAndGetTokens(UserTestDataProvider.ADMIN_USERNAME, UserTestDataProvider.PASSWORD).accessToken();
+    }
+
+    @Test
+    void shouldServeConcurrentReadsFromTwoConnectionsWithoutAcquisitionTimeouts() throws Exception {
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Future<Void>> clients = executor.invokeAll(
+                    IntStream.range(0, CLIENTS)
+                            .<Callable<Void>>mapToObj(i -> this::runClient)
+                            .toList()
+            );
+
+            for (Future<Void> client : clients) {
+                client.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(meterRegistry.get("hikaricp.connections.max").gauge().value()).isEqualTo(POOL_SIZE);
+        assertThat(meterRegistry.get("hikaricp.connections.timeout").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldReleaseConnectionsBeforeSlowResponsesAreSerialized() throws Exception {
+
+        Duration heldBefore = connectionHoldTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Future<Void>> clients = executor.invokeAll(
+                    IntStream.range(0, SLOW_CLIENTS)
+                            .<Callable<Void>>mapToObj(i -> this::fetchUserById)
+                            .toList()
+            );
+
+            for (Future<Void> client : clients) {
+                client.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        Duration held = connectionHoldTime().minus(heldBefore);
+
+        assertThat(held).isLessThan(SLOW_SERIALIZATION);
+        assertThat(meterRegistry.get("hikaricp.connections.timeout").counter().count()).isZero();
+    }
+
+    private Duration connectionHoldTime() {
+
+        return Duration.ofNanos((long) meterRegistry.find("hikaricp.connections.usage").timers().stream()
+                .mapToDouble(timer -> timer.totalTime(TimeUnit.NANOSECONDS))
+                .sum());
+    }
+
+    private Void fetchUserById() {
+
+        ResponseEntity<AdminUserResponse> user = restTemplate.exchange(
+                "/api/admin/users/" + userId, HttpMethod.GET, new HttpEntity<>(helper.authorizedHeaders(adminToken)), AdminUserResponse.class);
+
+        assertThat(user.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        return null;
+    }
+
+    private Void runClient() {
+
+        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+
+            ResponseEntity<UserProfileResponse> profile = restTemplate.exchange(
+                    "/api/user/me", HttpMethod.GET, new HttpEntity<>(helper.authorizedHeaders(userToken)), UserProfileResponse.class);
+
+            assertThat(profile.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            ResponseEntity<CustomPage<AdminUserSummaryResponse>> users = restTemplate.exchange(
+                    "/api/admin/users", HttpMethod.GET, new HttpEntity<>(helper.authorizedHeaders(adminToken)),
+                    new ParameterizedTypeReference<CustomPage<AdminUserSummaryResponse>>() {});
+
+            assertThat(users.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+
+        return null;
+    }
+
+    @TestConfiguration
+    static class SlowSerializationConfig {
+
+        @Bean
+        Jackson2ObjectMapperBuilderCustomizer slowAdminUserSerialization() {
+
+            return builder -> builder.serializerByType(AdminUserResponse.class, new StdSerializer<>(AdminUserResponse.class) {
+
+                @Override
+                public void serialize(AdminUserResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+
+                    try {
+                        Thread.sleep(SLOW_SERIALIZATION);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", value.id());
+                    generator.writeStringField("username", value.username());
+                    generator.writeStringField("name", value.name());
+                    generator.writeStringField("role", value.role().name());
+                    generator.writeEndObject();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.benjamerc.spring_security_course;
+
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
+import com.benjamerc.spring_security_course.authentication.dto.request.AuthRefreshTokenRequest;
+import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
+import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
+import com.benjamerc.spring_security_course.testsupport.dto.UserTokens;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class VirtualThreadPinningIT {
+
+    private static final int CLIENTS = 32;
+
+    private static final Set<Thread.State> WAITING = EnumSet.of(Thread.State.WAITING, Thread.State.TIMED_WAITING);
+
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private IntegrationTestHelper helper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ClusterEventBus clusterEventBus;
+    @Autowired private HikariDataSource primaryDataSource;
+
+    @BeforeEach
+    void setup() {
+
+        userRepository.deleteAll();
+
+        helper.createUser(
+                UserTestDataProvider.USER_USERNAME,
+                UserTestDataProvider.USER_NAME,
+                UserTestDataProvider.PASSWORD,
+                Role.USER
+        );
+    }
+
+    @Test
+    void shouldServeRequestsOnVirtualThreadsWithoutPinningOnPersistencePath() throws Exception {
+
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+        List<String> handlerThreads = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.enable("jdk.VirtualThreadStart");
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.onEvent("jdk.VirtualThreadStart", event -> handlerThreads.add(event.getThread().getJavaName()));
+            recording.startAsync();
+
+            runConcurrentSessions();
+
+            recording.stop();
+        }
+
+        assertThat(handlerThreads).anyMatch(name -> name.startsWith("tomcat-handler-"));
+
+        List<String> applicationPins = pinned.stream()
+                .filter(event -> !pinnedInsideTestDatabase(event))
+                .map(VirtualThreadPinningIT::describe)
+                .toList();
+
+        assertThat(applicationPins).isEmpty();
+    }
+
+    @Test
+    void shouldPollClusterEventsOnVirtualThreadWithoutPinningWhileWaitingForConnection() throws Exception {
+
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            Thread poller;
+            List<Connection> held = new ArrayList<>();
+
+            try {
+
+                for (int i = 0; i < primaryDataSource.getMaximumPoolSize(); i++) {
+                    held.add(primaryDataSource.getConnection());
+                }
+
+                poller = Thread.ofVirtual().start(clusterEventBus::poll);
+
+                await().atMost(Duration.ofSeconds(5)).until(() -> WAITING.contains(poller.getState()));
+
+            } finally {
+
+                for (Connection connection : held) {
+                    connection.close();
+                }
+            }
+
+            assertThat(poller.join(Duration.ofSeconds(10))).isTrue();
+
+            recording.stop();
+        }
+
+        assertThat(pinned.stream().map(VirtualThreadPinningIT::describe).toList()).isEmpty();
+    }
+
+    private void runConcurrentSessions() throws Exception {
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Future<Void>> sessions = executor.invokeAll(
+                    IntStream.range(0, CLIENTS)
+                            .<Callable<Void>>mapToObj(i -> this::runSession)
+                            .toList()
+            );
+
+            for (Future<Void> session : sessions) {
+                session.get(60, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private Void runSession() {
+
+        UserTokens tokens = helper.authenticateAndGetTokens(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD);
+
+        ResponseEntity<UserProfileResponse> profile = restTemplate.exchange(
+                "/api/user/me", HttpMethod.GET, new HttpEntity<>(helper.authorizedHeaders(tokens.accessToken())), UserProfileResponse.class);
+
+        assertThat(profile.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        AuthRefreshTokenRequest request = AuthTestDataProvider.authRefreshTokenRequest(tokens.rawRefreshToken());
+
+        ResponseEntity<AuthAuthenticateResponse> refreshed = restTemplate.exchange(
+                "/api/auth/refresh", HttpMethod.POST, new HttpEntity<>(request, helper.authorizedHeaders(tokens.accessToken())), AuthAuthenticateResponse.class);
+
+        assertThat(refreshed.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        return null;
+    }
+
+    private static boolean pinnedInsideTestDatabase(RecordedEvent event) {
+
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith("org.h2."));
+    }
+
+    private static String describe(RecordedEvent event) {
+
+        if (event.getStackTrace() == null) {
+            return event.getThread().getJavaName();
+        }
+
+        return event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n  ", event.getThread().getJavaName() + "\n  ", ""));
+    }
+}
@@ -5,6 +5,7 @@ import com.benjamerc.spring_security_course.authentication.dto.request.AuthRefre
 import com.benjamerc.spring_security_course.authentication.dto.request.AuthRegisterRequest;
 import com.benjamerc.spring_security_course.authentication.dto.token.RefreshTokenWithRaw;
 import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
+import com.benjamerc.spring_security_course.security.core.TokenUtils;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
 import com.benjamerc.spring_security_course.users.model.User;
 
@@ -15,6 +16,9 @@ public class AuthTestDataProvider {
 
     public static final String ACCESS_TOKEN = "access-token";
     public static final String REFRESH_TOKEN_STRING = "a976d35e-43f3-4f94-8ae3-9f84652dcc51";
+    public static final Long REFRESH_TOKEN_ID = 1L;
+    public static final String REFRESH_TOKEN_SECRET = "Yq3rT0n6p2ZbqS7m3b0k2y4f3Wm5Pj0yQf2sV1hK8dX";
+    public static final String REFRESH_TOKEN_VALUE = REFRESH_TOKEN_ID + "." + REFRESH_TOKEN_SECRET;
     public static final UUID REFRESH_TOKEN_SESSION = UUID.fromString("1e584051-cc15-42ac-a60e-668cd004a25d");
     public static final long REFRESH_TOKEN_EXPIRATION = 2592000000L;
 
@@ -22,6 +26,7 @@ public class AuthTestDataProvider {
 
         return RefreshToken.builder()
                 .token(REFRESH_TOKEN_STRING)
+                .secretHash(TokenUtils.sha256(REFRESH_TOKEN_SECRET))
                 .expiryDate(Instant.now().plusMillis(REFRESH_TOKEN_EXPIRATION))
                 .session(REFRESH_TOKEN_SESSION)
                 .user(user)
@@ -33,6 +38,7 @@ public class AuthTestDataProvider {
         return RefreshToken.builder()
                 .id(id)
                 .token(REFRESH_TOKEN_STRING)
+                .secretHash(TokenUtils.sha256(REFRESH_TOKEN_SECRET))
                 .expiryDate(Instant.now().plusMillis(REFRESH_TOKEN_EXPIRATION))
                 .session(REFRESH_TOKEN_SESSION)
                 .user(user)
@@ -66,7 +72,7 @@ public class AuthTestDataProvider {
 
     public static AuthRefreshTokenRequest authRefreshTokenRequest() {
 
-        return new AuthRefreshTokenRequest(REFRESH_TOKEN_STRING);
+        return new AuthRefreshTokenRequest(REFRESH_TOKEN_VALUE);
     }
 
     public static AuthRefreshTokenRequest authRefreshTokenRequest(String token) {
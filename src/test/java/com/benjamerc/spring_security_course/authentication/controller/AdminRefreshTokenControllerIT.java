@@ -0,0 +1,87 @@
+package com.benjamerc.spring_security_course.authentication.controller;
+
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
+import com.benjamerc.spring_security_course.authentication.dto.response.AuthRefreshTokenPurgeResponse;
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
+import com.benjamerc.spring_security_course.testsupport.dto.UserTokens;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class AdminRefreshTokenControllerIT {
+
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private IntegrationTestHelper helper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+
+    private UserTokens userTokens;
+    private UserTokens adminTokens;
+
+    @BeforeEach
+    void setup() {
+
+        userRepository.deleteAll();
+
+        helper.createUser(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.USER_NAME, UserTestDataProvider.PASSWORD, Role.USER);
+        helper.createUser(UserTestDataProvider.ADMIN_USERNAME, UserTestDataProvider.ADMIN_NAME, UserTestDataProvider.PASSWORD, Role.ADMIN);
+
+        userTokens = helper.authenticateAndGetTokens(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD);
+        adminTokens = helper.authenticateAndGetTokens(UserTestDataProvider.ADMIN_USERNAME, UserTestDataProvider.PASSWORD);
+    }
+
+    private ResponseEntity<AuthRefreshTokenPurgeResponse> postPurge(String accessToken) {
+
+        HttpEntity<Void> entity = new HttpEntity<>(helper.authorizedHeaders(accessToken));
+
+        return restTemplate.exchange("/api/admin/refresh-tokens/purge", HttpMethod.POST, entity, AuthRefreshTokenPurgeResponse.class);
+    }
+
+    @Test
+    void shouldReturn200AndPurgeExpiredRefreshTokensWhenAdminIsAuthenticated() {
+
+        userTokens.refreshToken().setExpiryDate(Instant.now().minusMillis(AuthTestDataProvider.REFRESH_TOKEN_EXPIRATION));
+        refreshTokenRepository.save(userTokens.refreshToken());
+
+        ResponseEntity<AuthRefreshTokenPurgeResponse> response = postPurge(adminTokens.accessToken());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().deleted()).isEqualTo(1);
+        assertThat(refreshTokenRepository.findById(userTokens.refreshToken().getId())).isEmpty();
+        assertThat(refreshTokenRepository.findById(adminTokens.refreshToken().getId())).isPresent();
+    }
+
+    @Test
+    void shouldReturn401WhenPurgeCalledWithNotAuthenticatedAdmin() {
+
+        ResponseEntity<AuthRefreshTokenPurgeResponse> response = postPurge(null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void shouldReturn403WhenPurgeCalledWithIncorrectRole() {
+
+        ResponseEntity<AuthRefreshTokenPurgeResponse> response = postPurge(userTokens.accessToken());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+}
@@ -0,0 +1,56 @@
+package com.benjamerc.spring_security_course.authentication.controller;
+
+import com.benjamerc.spring_security_course.authentication.security.RefreshTokenPurger;
+import com.benjamerc.spring_security_course.security.core.AccessTokenCache;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
+import com.benjamerc.spring_security_course.security.core.AccessTokenService;
+import com.benjamerc.spring_security_course.shared.advice.GlobalExceptionHandler;
+import com.benjamerc.spring_security_course.shared.builder.ApiErrorBuilder;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminRefreshTokenController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({GlobalExceptionHandler.class, ApiErrorBuilder.class})
+public class AdminRefreshTokenControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RefreshTokenPurger refreshTokenPurger;
+
+    @MockitoBean
+    private AccessTokenService accessTokenService;
+
+    @MockitoBean
+    private AccessTokenCache accessTokenCache;
+
+    @MockitoBean
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @Test
+    void shouldReturn200AndDeletedCountWhenPurging() throws Exception {
+
+        when(refreshTokenPurger.purge()).thenReturn(42);
+
+        mockMvc.perform(post("/api/admin/refresh-tokens/purge")
+                        .with(user(UserTestDataProvider.ADMIN_USERNAME)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(42));
+
+        verify(refreshTokenPurger).purge();
+    }
+}
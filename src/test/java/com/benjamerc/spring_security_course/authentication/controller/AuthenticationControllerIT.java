@@ -8,20 +8,29 @@ import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuth
 import com.benjamerc.spring_security_course.authentication.dto.response.AuthRegisterResponse;
 import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
 import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.security.core.TokenUtils;
+import com.benjamerc.spring_security_course.shared.dto.error.ApiError;
+import com.benjamerc.spring_security_course.shared.exception.ErrorCode;
 import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
 import com.benjamerc.spring_security_course.testsupport.dto.UserTokens;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.UserTestFactory;
 import com.benjamerc.spring_security_course.users.model.User;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,6 +42,7 @@ public class AuthenticationControllerIT {
     @Autowired private IntegrationTestHelper helper;
     @Autowired private UserRepository userRepository;
     @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
 
     @BeforeEach
     void setup() {
@@ -115,6 +125,51 @@ public class AuthenticationControllerIT {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
 
+    @Test
+    void shouldRegisterUserWithSingleInsert() {
+
+        AuthRegisterRequest request = AuthTestDataProvider.authRegisterRequest(
+                UUID.randomUUID() + "@email.com",
+                UserTestDataProvider.USER_NAME,
+                UserTestDataProvider.PASSWORD
+        );
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<AuthRegisterResponse> response =
+                restTemplate.postForEntity("/api/auth/register", request, AuthRegisterResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldReturnUsernameAlreadyExistsFromUniqueConstraintWithSingleStatement() {
+
+        String username = UUID.randomUUID() + "@email.com";
+
+        helper.createUser(username, UserTestDataProvider.USER_NAME, UserTestDataProvider.PASSWORD, Role.USER);
+
+        AuthRegisterRequest request = AuthTestDataProvider.authRegisterRequest(
+                username,
+                UserTestDataProvider.USER_NAME,
+                UserTestDataProvider.PASSWORD
+        );
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<ApiError> response =
+                restTemplate.postForEntity("/api/auth/register", request, ApiError.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo(ErrorCode.USERNAME_ALREADY_EXISTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     @Test
     void shouldReturn400WhenRegisterUserCalledWithInvalidDto() {
 
@@ -146,6 +201,34 @@ public class AuthenticationControllerIT {
         assertThat(response.getBody().refreshToken()).isNotBlank();
     }
 
+    @Test
+    void shouldUpgradeLegacyPasswordHashWhenAuthenticating() {
+
+        User user = UserTestFactory.defineUser(
+                UserTestDataProvider.USER_USERNAME,
+                UserTestDataProvider.USER_NAME,
+                UserTestDataProvider.PASSWORD,
+                Role.USER,
+                new BCryptPasswordEncoder(10)
+        );
+        userRepository.save(user);
+
+        AuthAuthenticateRequest request =
+                AuthTestDataProvider.authAuthenticateRequest(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD);
+
+        ResponseEntity<AuthAuthenticateResponse> response =
+                restTemplate.postForEntity("/api/auth/authenticate", request, AuthAuthenticateResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(userRepository.findByUsername(UserTestDataProvider.USER_USERNAME).orElseThrow().getPassword())
+                .startsWith("{bcrypt}");
+
+        ResponseEntity<AuthAuthenticateResponse> secondResponse =
+                restTemplate.postForEntity("/api/auth/authenticate", request, AuthAuthenticateResponse.class);
+
+        assertThat(secondResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     void shouldReturn401WhenAuthenticateUserCalledWithIncorrectCredentials() {
 
@@ -216,6 +299,34 @@ public class AuthenticationControllerIT {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
     }
 
+    @Test
+    void shouldReturn200AndRefreshTokenCalledWithLegacyFormatToken() {
+
+        UserTokens tokens = createAndAuthenticateUser();
+
+        tokens.refreshToken().setToken(TokenUtils.hashSHA256(AuthTestDataProvider.REFRESH_TOKEN_STRING));
+        tokens.refreshToken().setSecretHash(null);
+        refreshTokenRepository.save(tokens.refreshToken());
+
+        ResponseEntity<AuthAuthenticateResponse> response = postRefresh(AuthTestDataProvider.REFRESH_TOKEN_STRING, tokens.accessToken());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().refreshToken()).contains(".");
+    }
+
+    @Test
+    void shouldReturn404WhenRefreshTokenCalledWithWrongSecret() {
+
+        UserTokens tokens = createAndAuthenticateUser();
+
+        String forgedToken = tokens.refreshToken().getId() + "." + AuthTestDataProvider.REFRESH_TOKEN_SECRET;
+
+        ResponseEntity<AuthAuthenticateResponse> response = postRefresh(forgedToken, tokens.accessToken());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
     @Test
     void shouldReturn404WhenRefreshTokenCalledWithNonexistentToken() {
 
@@ -6,32 +6,41 @@ import com.benjamerc.spring_security_course.authentication.dto.request.AuthRefre
 import com.benjamerc.spring_security_course.authentication.dto.request.AuthRegisterRequest;
 import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
 import com.benjamerc.spring_security_course.authentication.dto.response.AuthRegisterResponse;
+import com.benjamerc.spring_security_course.authentication.exception.PasswordHashingUnavailableException;
 import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenExpiredException;
 import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenNotFoundException;
 import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenRevokedException;
 import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
 import com.benjamerc.spring_security_course.authentication.service.AuthenticationService;
+import com.benjamerc.spring_security_course.security.core.AccessTokenCache;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
 import com.benjamerc.spring_security_course.security.core.AccessTokenService;
 import com.benjamerc.spring_security_course.security.core.Role;
 import com.benjamerc.spring_security_course.shared.advice.GlobalExceptionHandler;
 import com.benjamerc.spring_security_course.shared.builder.ApiErrorBuilder;
-import com.benjamerc.spring_security_course.users.model.User;
-import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.benjamerc.spring_security_course.users.service.UsernameFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.sql.SQLException;
+import java.time.Duration;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -54,7 +63,13 @@ public class AuthenticationControllerTest {
     private AccessTokenService accessTokenService;
 
     @MockitoBean
-    private UserRepository userRepository;
+    private AccessTokenCache accessTokenCache;
+
+    @MockitoBean
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @MockitoBean
+    private UsernameFilter usernameFilter;
 
     @Test
     void shouldReturn201AndRegisterUser() throws Exception {
@@ -87,7 +102,44 @@ public class AuthenticationControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(authenticationService).register(any(AuthRegisterRequest.class));
-        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void shouldThrow400WhenUsernameUniqueViolationComesFromDifferentlyNamedConstraint() throws Exception {
+
+        AuthRegisterRequest registerRequest = AuthTestDataProvider.authRegisterRequest();
+
+        SQLException sqlException = new SQLException(
+                "ERROR: duplicate key value violates unique constraint \"users_username_key\"\n  Detail: Key (username)=(user@email.com) already exists.",
+                "23505"
+        );
+
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, "users_username_key")))
+                .when(authenticationService).register(any(AuthRegisterRequest.class));
+
+        performPost("/api/auth/register", registerRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("USERNAME_ALREADY_EXISTS"));
+    }
+
+    @Test
+    void shouldThrow400WithDatabaseErrorWhenUniqueViolationIsNotOnUsername() throws Exception {
+
+        AuthRegisterRequest registerRequest = AuthTestDataProvider.authRegisterRequest();
+
+        SQLException sqlException = new SQLException(
+                "ERROR: duplicate key value violates unique constraint \"refresh_tokens_token_key\"\n  Detail: Key (token)=(token) already exists.",
+                "23505"
+        );
+
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, "refresh_tokens_token_key")))
+                .when(authenticationService).register(any(AuthRegisterRequest.class));
+
+        performPost("/api/auth/register", registerRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("DATABASE_ERROR"));
     }
 
     @Test
@@ -106,7 +158,7 @@ public class AuthenticationControllerTest {
         AuthAuthenticateRequest authenticateRequest = AuthTestDataProvider.authAuthenticateRequest();
 
         AuthAuthenticateResponse authenticateResponse =
-                new AuthAuthenticateResponse(AuthTestDataProvider.ACCESS_TOKEN, AuthTestDataProvider.REFRESH_TOKEN_STRING);
+                new AuthAuthenticateResponse(AuthTestDataProvider.ACCESS_TOKEN, AuthTestDataProvider.REFRESH_TOKEN_VALUE);
 
         when(authenticationService.login(any(AuthAuthenticateRequest.class))).thenReturn(authenticateResponse);
 
@@ -132,6 +184,22 @@ public class AuthenticationControllerTest {
         verify(authenticationService).login(any(AuthAuthenticateRequest.class));
     }
 
+    @Test
+    void shouldThrow503WhenLoginCalledWhilePasswordHashingIsSaturated() throws Exception {
+
+        AuthAuthenticateRequest authenticateRequest = AuthTestDataProvider.authAuthenticateRequest();
+
+        doThrow(new PasswordHashingUnavailableException("Too many concurrent authentication requests", Duration.ofSeconds(2)))
+                .when(authenticationService).login(any(AuthAuthenticateRequest.class));
+
+        performPost("/api/auth/authenticate", authenticateRequest)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.code").value("PASSWORD_HASHING_UNAVAILABLE"));
+
+        verify(authenticationService).login(any(AuthAuthenticateRequest.class));
+    }
+
     @Test
     void shouldThrow400WhenLoginCalledWithInvalidDto() throws Exception {
 
@@ -0,0 +1,156 @@
+package com.benjamerc.spring_security_course.authentication.repository;
+
+import com.benjamerc.spring_security_course.users.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.benjamerc.spring_security_course.authentication.repository.RefreshTokenQueryPlanTest$CapturingStatementInspector"
+})
+public class RefreshTokenQueryPlanTest {
+
+    private static final UUID SESSION = UUID.fromString("0b6f3c4e-6a43-4c1f-9a4f-2d4b8f0a1c2e");
+    private static final User USER = User.builder().id(1L).build();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldUseUniqueIndexToFindByToken() {
+
+        String plan = explain(() -> refreshTokenRepository.findByToken("token"), "token");
+
+        assertUsesIndex(plan, "refresh_tokens_token_key");
+    }
+
+    @Test
+    void shouldUsePrimaryKeyToRevokeIfActive() {
+
+        Instant now = Instant.now();
+
+        String plan = explain(() -> refreshTokenRepository.revokeIfActive(1L, now), now, 1L);
+
+        assertUsesIndex(plan, "primary_key");
+    }
+
+    @Test
+    void shouldUseUserIndexToRevokeAllByUser() {
+
+        Instant now = Instant.now();
+
+        String plan = explain(() -> refreshTokenRepository.revokeAllByUser(USER, now), now, 1L);
+
+        assertUsesIndex(plan, "fk1lih5y2npsf8u5o3vhdb9y0os");
+    }
+
+    @Test
+    void shouldUseActiveSessionIndexToRevokeAllByUserAndSession() {
+
+        insertActiveTokens();
+        Instant now = Instant.now();
+
+        String plan = explain(() -> refreshTokenRepository.revokeAllByUserAndSession(USER, SESSION, now), now, 1L, SESSION);
+
+        assertUsesIndex(plan, "idx_refresh_tokens_user_session_active");
+    }
+
+    @Test
+    void shouldUseActiveSessionIndexToRevokeFamily() {
+
+        insertActiveTokens();
+        Instant now = Instant.now();
+
+        String plan = explain(() -> refreshTokenRepository.revokeFamily(1L, SESSION, now), now, 1L, SESSION);
+
+        assertUsesIndex(plan, "idx_refresh_tokens_user_session_active");
+    }
+
+    @Test
+    void shouldUseExpiryIndexToFindExpiredIds() {
+
+        Instant now = Instant.now();
+
+        String plan = explain(() -> refreshTokenRepository.findExpiredIds(now, Limit.of(1000)), now, 1000);
+
+        assertUsesIndex(plan, "idx_refresh_tokens_expiry_date");
+    }
+
+    @Test
+    void shouldUseRevokedAtIndexToFindRevokedIds() {
+
+        Instant now = Instant.now();
+
+        String plan = explain(() -> refreshTokenRepository.findRevokedIds(now, Limit.of(1000)), now, 1000);
+
+        assertUsesIndex(plan, "idx_refresh_tokens_revoked_at");
+    }
+
+    @Test
+    void shouldUsePrimaryKeyToDeleteAllByIds() {
+
+        String plan = explain(() -> refreshTokenRepository.deleteAllByIds(List.of(1L, 2L, 3L)), 1L, 2L, 3L);
+
+        assertUsesIndex(plan, "primary_key");
+    }
+
+    private void insertActiveTokens() {
+
+        jdbcTemplate.update("merge into users (id, name, password, role, username) key (id) values (1, 'name', 'password', 'USER', 'user@email.com')");
+
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.update("merge into refresh_tokens (id, expiry_date, revoked, session, user_id) key (id) values (?, current_timestamp, false, random_uuid(), 1)", i);
+        }
+
+        jdbcTemplate.execute("analyze table refresh_tokens");
+    }
+
+    private String explain(Runnable repositoryCall, Object... parameters) {
+
+        CapturingStatementInspector.STATEMENTS.clear();
+        repositoryCall.run();
+
+        assertThat(CapturingStatementInspector.STATEMENTS).hasSize(1);
+
+        return jdbcTemplate.queryForObject("explain " + CapturingStatementInspector.STATEMENTS.getFirst(), String.class, parameters);
+    }
+
+    private void assertUsesIndex(String plan, String index) {
+
+        assertThat(plan).containsIgnoringCase(index);
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+
+            STATEMENTS.add(sql);
+
+            return sql;
+        }
+    }
+}
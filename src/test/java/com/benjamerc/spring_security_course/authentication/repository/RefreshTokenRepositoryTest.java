@@ -8,7 +8,10 @@ import com.benjamerc.spring_security_course.users.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +27,9 @@ public class RefreshTokenRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void shouldReturnRefreshTokenByToken() {
 
@@ -48,21 +54,7 @@ public class RefreshTokenRepositoryTest {
     }
 
     @Test
-    void shouldReturnActiveRefreshTokensByUser() {
-
-        User user = UserTestDataProvider.user(null);
-        userRepository.save(user);
-
-        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
-        refreshTokenRepository.save(refreshToken);
-
-        List<RefreshToken> result = refreshTokenRepository.findAllByUserAndRevokedFalse(user);
-
-        assertThat(result).containsExactly(refreshToken);
-    }
-
-    @Test
-    void shouldReturnActiveRefreshTokensByUserWithMultipleTokens() {
+    void shouldRevokeAllActiveRefreshTokensByUser() {
 
         User user = UserTestDataProvider.user(null);
         userRepository.save(user);
@@ -70,74 +62,141 @@ public class RefreshTokenRepositoryTest {
         RefreshToken token1 = AuthTestDataProvider.refreshToken(user);
         RefreshToken token2 = AuthTestDataProvider.refreshToken(user);
         token2.setToken("31aed1ca-8bf5-405e-8cc5-bde4bbe91210");
+        token2.setSession(UUID.randomUUID());
 
         refreshTokenRepository.save(token1);
         refreshTokenRepository.save(token2);
 
-        List<RefreshToken> result = refreshTokenRepository.findAllByUserAndRevokedFalse(user);
+        int result = refreshTokenRepository.revokeAllByUser(user, Instant.now());
+        entityManager.clear();
 
-        assertThat(result).containsExactly(token1, token2);
+        assertThat(result).isEqualTo(2);
+        assertThat(refreshTokenRepository.findAll()).allMatch(t -> t.isRevoked() && t.getRevokedAt() != null);
     }
 
     @Test
-    void shouldReturnEmptyListWhenUserHasNoActiveRefreshToken() {
+    void shouldNotCountAlreadyRevokedRefreshTokensWhenRevokingByUser() {
 
-        User nonExistentUser = UserTestDataProvider.user(null);
-        userRepository.save(nonExistentUser);
+        User user = UserTestDataProvider.user(null);
+        userRepository.save(user);
 
-        List<RefreshToken> result = refreshTokenRepository.findAllByUserAndRevokedFalse(nonExistentUser);
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
+        refreshToken.setRevoked(true);
+        refreshTokenRepository.save(refreshToken);
 
-        assertThat(result).isEmpty();
+        int result = refreshTokenRepository.revokeAllByUser(user, Instant.now());
+
+        assertThat(result).isZero();
     }
 
     @Test
-    void shouldReturnActiveRefreshTokensByUserAndSession() {
+    void shouldNotRevokeRefreshTokensOfOtherUsers() {
 
         User user = UserTestDataProvider.user(null);
         userRepository.save(user);
 
-        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
+        User otherUser = UserTestDataProvider.user(null);
+        otherUser.setUsername("other@email.com");
+        userRepository.save(otherUser);
+
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(otherUser);
         refreshTokenRepository.save(refreshToken);
 
-        List<RefreshToken> result = refreshTokenRepository.findAllByUserAndSessionAndRevokedFalse(user, refreshToken.getSession());
+        int result = refreshTokenRepository.revokeAllByUser(user, Instant.now());
+        entityManager.clear();
 
-        assertThat(result).containsExactly(refreshToken);
+        assertThat(result).isZero();
+        assertThat(refreshTokenRepository.findById(refreshToken.getId())).get()
+                .extracting(RefreshToken::isRevoked)
+                .isEqualTo(false);
     }
 
     @Test
-    void shouldReturnActiveRefreshTokensByUserAndSessionWithMultipleTokens() {
+    void shouldRevokeOnlyRefreshTokensOfGivenSession() {
 
         User user = UserTestDataProvider.user(null);
         userRepository.save(user);
 
-        UUID sessionId = AuthTestDataProvider.REFRESH_TOKEN_SESSION;
-
         RefreshToken token1 = AuthTestDataProvider.refreshToken(user);
 
         RefreshToken token2 = AuthTestDataProvider.refreshToken(user);
         token2.setToken("31aed1ca-8bf5-405e-8cc5-bde4bbe91210");
-        token2.setSession(sessionId);
+        token2.setSession(UUID.randomUUID());
 
         refreshTokenRepository.save(token1);
         refreshTokenRepository.save(token2);
 
-        List<RefreshToken> result = refreshTokenRepository.findAllByUserAndSessionAndRevokedFalse(user, sessionId);
+        int result = refreshTokenRepository.revokeAllByUserAndSession(user, AuthTestDataProvider.REFRESH_TOKEN_SESSION, Instant.now());
+        entityManager.clear();
 
-        assertThat(result).containsExactly(token1, token2);
+        assertThat(result).isEqualTo(1);
+        assertThat(refreshTokenRepository.findById(token1.getId())).get().extracting(RefreshToken::isRevoked).isEqualTo(true);
+        assertThat(refreshTokenRepository.findById(token2.getId())).get().extracting(RefreshToken::isRevoked).isEqualTo(false);
     }
 
     @Test
-    void shouldReturnEmptyListWhenUserHasNoActiveTokensInSession() {
+    void shouldFindExpiredAndLongRevokedRefreshTokensForPurge() {
 
         User user = UserTestDataProvider.user(null);
         userRepository.save(user);
 
-        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
-        refreshToken.setRevoked(true);
-        refreshTokenRepository.save(refreshToken);
+        Instant now = Instant.now();
 
-        List<RefreshToken> result = refreshTokenRepository.findAllByUserAndSessionAndRevokedFalse(user, refreshToken.getSession());
+        RefreshToken active = refreshToken(user, "active", now.plusSeconds(3600), null);
+        RefreshToken expired = refreshToken(user, "expired", now.minusSeconds(3600), null);
+        RefreshToken recentlyRevoked = refreshToken(user, "recently-revoked", now.plusSeconds(3600), now.minusSeconds(60));
+        RefreshToken longRevoked = refreshToken(user, "long-revoked", now.plusSeconds(3600), now.minusSeconds(7200));
 
-        assertThat(result).isEmpty();
+        List<Long> expiredIds = refreshTokenRepository.findExpiredIds(now, Limit.of(10));
+        List<Long> revokedIds = refreshTokenRepository.findRevokedIds(now.minusSeconds(3600), Limit.of(10));
+
+        assertThat(expiredIds).containsExactly(expired.getId());
+        assertThat(revokedIds).containsExactly(longRevoked.getId());
+        assertThat(expiredIds).doesNotContain(active.getId(), recentlyRevoked.getId());
+        assertThat(revokedIds).doesNotContain(active.getId(), recentlyRevoked.getId());
+    }
+
+    @Test
+    void shouldLimitPurgeableRefreshTokensToChunkSize() {
+
+        User user = UserTestDataProvider.user(null);
+        userRepository.save(user);
+
+        Instant now = Instant.now();
+
+        for (int i = 0; i < 5; i++) {
+            refreshToken(user, "expired-" + i, now.minusSeconds(3600), null);
+        }
+
+        List<Long> result = refreshTokenRepository.findExpiredIds(now, Limit.of(3));
+
+        assertThat(result).hasSize(3);
+    }
+
+    @Test
+    void shouldDeleteRefreshTokensByIds() {
+
+        User user = UserTestDataProvider.user(null);
+        userRepository.save(user);
+
+        RefreshToken kept = refreshToken(user, "kept", Instant.now().plusSeconds(3600), null);
+        RefreshToken deleted = refreshToken(user, "deleted", Instant.now().minusSeconds(3600), null);
+
+        int result = refreshTokenRepository.deleteAllByIds(List.of(deleted.getId()));
+        entityManager.clear();
+
+        assertThat(result).isEqualTo(1);
+        assertThat(refreshTokenRepository.findAll()).extracting(RefreshToken::getId).containsExactly(kept.getId());
+    }
+
+    private RefreshToken refreshToken(User user, String token, Instant expiryDate, Instant revokedAt) {
+
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
+        refreshToken.setToken(token);
+        refreshToken.setExpiryDate(expiryDate);
+        refreshToken.setRevoked(revokedAt != null);
+        refreshToken.setRevokedAt(revokedAt);
+
+        return refreshTokenRepository.save(refreshToken);
     }
 }
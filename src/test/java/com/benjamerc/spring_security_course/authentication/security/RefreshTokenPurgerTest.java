@@ -0,0 +1,103 @@
+package com.benjamerc.spring_security_course.authentication.security;
+
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenPurgerTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RefreshTokenPurger refreshTokenPurger;
+
+    @BeforeEach
+    void setup() {
+
+        JwtProperties.Purge purge = new JwtProperties.Purge();
+        purge.setInterval(Duration.ofHours(1));
+        purge.setExpiredRetention(Duration.ofDays(1));
+        purge.setRevokedRetention(Duration.ofDays(7));
+        purge.setChunkSize(2);
+
+        JwtProperties.RefreshToken refreshToken = new JwtProperties.RefreshToken();
+        refreshToken.setPurge(purge);
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setRefreshToken(refreshToken);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        refreshTokenPurger = new RefreshTokenPurger(refreshTokenRepository, jwtProperties, meterRegistry);
+    }
+
+    @Test
+    void shouldDeleteInChunksUntilChunkIsNotFull() {
+
+        when(refreshTokenRepository.findExpiredIds(any(Instant.class), eq(Limit.of(2))))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        when(refreshTokenRepository.findRevokedIds(any(Instant.class), eq(Limit.of(2))))
+                .thenReturn(List.of(6L));
+        when(refreshTokenRepository.deleteAllByIds(anyList())).thenReturn(2, 2, 1, 1);
+
+        int result = refreshTokenPurger.purge();
+
+        assertThat(result).isEqualTo(6);
+        assertThat(meterRegistry.get("refresh_tokens.purged").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("refresh_tokens.purge.batch").timer().count()).isEqualTo(4);
+
+        verify(refreshTokenRepository, times(4)).deleteAllByIds(anyList());
+    }
+
+    @Test
+    void shouldNotDeleteWhenNothingIsPurgeable() {
+
+        when(refreshTokenRepository.findExpiredIds(any(Instant.class), any(Limit.class))).thenReturn(List.of());
+        when(refreshTokenRepository.findRevokedIds(any(Instant.class), any(Limit.class))).thenReturn(List.of());
+
+        int result = refreshTokenPurger.purge();
+
+        assertThat(result).isZero();
+
+        verify(refreshTokenRepository, never()).deleteAllByIds(anyList());
+    }
+
+    @Test
+    void shouldApplyRetentionToCutoffs() {
+
+        when(refreshTokenRepository.findExpiredIds(any(Instant.class), any(Limit.class))).thenReturn(List.of());
+        when(refreshTokenRepository.findRevokedIds(any(Instant.class), any(Limit.class))).thenReturn(List.of());
+
+        Instant before = Instant.now();
+
+        refreshTokenPurger.purge();
+
+        verify(refreshTokenRepository).findExpiredIds(
+                argThat(expiredBefore -> !expiredBefore.isAfter(Instant.now().minus(Duration.ofDays(1)))
+                        && !expiredBefore.isBefore(before.minus(Duration.ofDays(1)))),
+                eq(Limit.of(2))
+        );
+        verify(refreshTokenRepository).findRevokedIds(
+                argThat(revokedBefore -> !revokedBefore.isAfter(Instant.now().minus(Duration.ofDays(7)))
+                        && !revokedBefore.isBefore(before.minus(Duration.ofDays(7)))),
+                eq(Limit.of(2))
+        );
+    }
+}
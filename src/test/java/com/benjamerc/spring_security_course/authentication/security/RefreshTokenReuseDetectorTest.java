@@ -0,0 +1,172 @@
+package com.benjamerc.spring_security_course.authentication.security;
+
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
+import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.core.TokenUtils;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenReuseDetectorTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RefreshTokenReuseDetector refreshTokenReuseDetector;
+
+    private RefreshToken refreshToken;
+
+    @BeforeEach
+    void setup() {
+
+        JwtProperties.Reuse reuse = new JwtProperties.Reuse();
+        reuse.setGracePeriod(Duration.ofSeconds(2));
+        reuse.setCacheMaximumSize(100);
+        reuse.setCacheTimeToLive(Duration.ofMinutes(10));
+
+        JwtProperties.RefreshToken refreshTokenProperties = new JwtProperties.RefreshToken();
+        refreshTokenProperties.setReuse(reuse);
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setRefreshToken(refreshTokenProperties);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        refreshTokenReuseDetector = new RefreshTokenReuseDetector(refreshTokenRepository, jwtProperties, meterRegistry);
+
+        refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(USER_ID), AuthTestDataProvider.REFRESH_TOKEN_ID);
+    }
+
+    @Test
+    void shouldRevokeFamilyOnceWhenRotatedTokenIsReusedAfterGracePeriod() {
+
+        refreshTokenReuseDetector.rotated(refreshToken, Instant.now().minusSeconds(60));
+
+        when(refreshTokenRepository.revokeFamily(eq(USER_ID), eq(AuthTestDataProvider.REFRESH_TOKEN_SESSION), any(Instant.class))).thenReturn(3);
+
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, secretHash())).isTrue();
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, secretHash())).isTrue();
+
+        assertThat(meterRegistry.get("refresh_tokens.reuse_detected").counter().count()).isEqualTo(1);
+
+        verify(refreshTokenRepository).revokeFamily(eq(USER_ID), eq(AuthTestDataProvider.REFRESH_TOKEN_SESSION), any(Instant.class));
+    }
+
+    @Test
+    void shouldRejectWithoutRevokingFamilyWithinGracePeriod() {
+
+        refreshTokenReuseDetector.rotated(refreshToken, Instant.now());
+
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, secretHash())).isTrue();
+
+        assertThat(meterRegistry.get("refresh_tokens.reuse_detected").counter().count()).isZero();
+
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void shouldIgnoreUnknownTokensAndMismatchedSecrets() {
+
+        refreshTokenReuseDetector.rotated(refreshToken, Instant.now().minusSeconds(60));
+
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(2L, secretHash())).isFalse();
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, TokenUtils.sha256("other"))).isFalse();
+
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void shouldRevokeFamilyWhenRevokedTokenIsPresentedAndCacheIt() {
+
+        refreshToken.setRevoked(true);
+        refreshToken.setRevokedAt(Instant.now().minusSeconds(60));
+
+        when(refreshTokenRepository.revokeFamily(eq(USER_ID), eq(AuthTestDataProvider.REFRESH_TOKEN_SESSION), any(Instant.class))).thenReturn(1);
+
+        refreshTokenReuseDetector.revokedTokenPresented(refreshToken);
+
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, secretHash())).isTrue();
+        assertThat(meterRegistry.get("refresh_tokens.reuse_detected").counter().count()).isEqualTo(1);
+
+        verify(refreshTokenRepository).revokeFamily(eq(USER_ID), eq(AuthTestDataProvider.REFRESH_TOKEN_SESSION), any(Instant.class));
+    }
+
+    @Test
+    void shouldNotCountReuseWhenFamilyIsAlreadyRevoked() {
+
+        refreshToken.setRevoked(true);
+        refreshToken.setRevokedAt(Instant.now().minusSeconds(60));
+
+        when(refreshTokenRepository.revokeFamily(eq(USER_ID), eq(AuthTestDataProvider.REFRESH_TOKEN_SESSION), any(Instant.class))).thenReturn(0);
+
+        refreshTokenReuseDetector.revokedTokenPresented(refreshToken);
+
+        assertThat(meterRegistry.get("refresh_tokens.reuse_detected").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldRememberRotationOnlyAfterTransactionCommits() {
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+
+            refreshTokenReuseDetector.rotated(refreshToken, Instant.now());
+
+            assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, secretHash())).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, secretHash())).isTrue();
+    }
+
+    @Test
+    void shouldForgetRotationWhenTransactionRollsBack() {
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+
+            refreshTokenReuseDetector.rotated(refreshToken, Instant.now().minusSeconds(60));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(refreshTokenReuseDetector.isRecentlyRotated(AuthTestDataProvider.REFRESH_TOKEN_ID, secretHash())).isFalse();
+
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    private static byte[] secretHash() {
+
+        return TokenUtils.sha256(AuthTestDataProvider.REFRESH_TOKEN_SECRET);
+    }
+}
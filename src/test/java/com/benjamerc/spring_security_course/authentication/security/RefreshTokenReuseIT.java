@@ -0,0 +1,145 @@
+package com.benjamerc.spring_security_course.authentication.security;
+
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
+import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
+import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
+import com.benjamerc.spring_security_course.testsupport.dto.UserTokens;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "application.security.jwt.refresh-token.reuse.grace-period=0s",
+        "application.cluster-events.poll-interval=1h"
+})
+public class RefreshTokenReuseIT {
+
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private IntegrationTestHelper helper;
+    @Autowired private UserRepository userRepository;
+    @MockitoSpyBean private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private UserTokens tokens;
+
+    @BeforeEach
+    void setup() {
+
+        userRepository.deleteAll();
+
+        helper.createUser(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.USER_NAME, UserTestDataProvider.PASSWORD, Role.USER);
+
+        tokens = helper.authenticateAndGetTokens(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD);
+    }
+
+    @Test
+    void shouldRevokeWholeSessionWhenRotatedTokenIsReused() {
+
+        double before = reuseDetected();
+
+        ResponseEntity<AuthAuthenticateResponse> rotated = refresh(tokens.rawRefreshToken());
+
+        assertThat(rotated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(rotated.getBody()).isNotNull();
+
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(refresh(rotated.getBody().refreshToken()).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        List<RefreshToken> session = refreshTokenRepository.findAll();
+
+        assertThat(session).hasSize(2);
+        assertThat(session).allSatisfy(refreshToken -> assertThat(refreshToken.isRevoked()).isTrue());
+        assertThat(reuseDetected()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void shouldRejectRepeatedReuseWithoutQueryingDatabase() {
+
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void shouldAcceptRetryWhenRotationRollsBack() {
+
+        double before = reuseDetected();
+
+        doThrow(new DataIntegrityViolationException("insert failed")).when(refreshTokenRepository).save(any(RefreshToken.class));
+
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        reset(refreshTokenRepository);
+
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(reuseDetected()).isEqualTo(before);
+    }
+
+    @Test
+    void shouldRevokeWholeSessionOnTheRequestConnection() {
+
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        long before = connectionUsages();
+
+        assertThat(refresh(tokens.rawRefreshToken()).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        assertThat(connectionUsages() - before).isEqualTo(1);
+        assertThat(refreshTokenRepository.findAll()).allSatisfy(refreshToken -> assertThat(refreshToken.isRevoked()).isTrue());
+    }
+
+    private ResponseEntity<AuthAuthenticateResponse> refresh(String refreshToken) {
+
+        return restTemplate.postForEntity(
+                "/api/auth/refresh",
+                AuthTestDataProvider.authRefreshTokenRequest(refreshToken),
+                AuthAuthenticateResponse.class
+        );
+    }
+
+    private double reuseDetected() {
+
+        return meterRegistry.get("refresh_tokens.reuse_detected").counter().count();
+    }
+
+    private long connectionUsages() {
+
+        return meterRegistry.find("hikaricp.connections.usage").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
@@ -0,0 +1,139 @@
+package com.benjamerc.spring_security_course.authentication.security;
+
+import com.benjamerc.spring_security_course.authentication.dto.token.RefreshTokenWithRaw;
+import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenRevokedException;
+import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.model.User;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "application.security.jwt.refresh-token.reuse.grace-period=1m")
+public class RefreshTokenRotationConcurrencyIT {
+
+    private static final int TOKENS = 50;
+    private static final int CONTENDERS = 40;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IntegrationTestHelper helper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+
+        userRepository.deleteAll();
+
+        user = helper.createUser(
+                UserTestDataProvider.USER_USERNAME,
+                UserTestDataProvider.USER_NAME,
+                UserTestDataProvider.PASSWORD,
+                Role.USER
+        );
+    }
+
+    @Test
+    void shouldLetExactlyOneConcurrentRotationWinPerToken() throws Exception {
+
+        List<RefreshTokenWithRaw> tokens = new ArrayList<>();
+
+        for (int i = 0; i < TOKENS; i++) {
+            tokens.add(refreshTokenService.createRefreshToken(user, UUID.randomUUID()));
+        }
+
+        Map<String, List<Future<RefreshTokenWithRaw>>> attempts = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (RefreshTokenWithRaw token : tokens) {
+
+                List<Future<RefreshTokenWithRaw>> futures = new ArrayList<>();
+
+                for (int i = 0; i < CONTENDERS; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return refreshTokenService.rotateRefreshToken(token.getRawToken());
+                    }));
+                }
+
+                attempts.put(token.getRawToken(), futures);
+            }
+
+            start.countDown();
+
+            for (List<Future<RefreshTokenWithRaw>> futures : attempts.values()) {
+
+                int winners = 0;
+
+                for (Future<RefreshTokenWithRaw> future : futures) {
+                    try {
+                        future.get(60, TimeUnit.SECONDS);
+                        winners++;
+                    } catch (ExecutionException e) {
+                        assertThat(e.getCause()).isInstanceOf(RefreshTokenRevokedException.class);
+                    }
+                }
+
+                assertThat(winners).isEqualTo(1);
+            }
+        }
+
+        Map<UUID, List<RefreshToken>> sessions = refreshTokenRepository.findAll().stream()
+                .collect(Collectors.groupingBy(RefreshToken::getSession));
+
+        assertThat(sessions).hasSize(TOKENS);
+        assertThat(sessions.values()).allSatisfy(session -> {
+            assertThat(session).hasSize(2);
+            assertThat(session).filteredOn(refreshToken -> !refreshToken.isRevoked()).hasSize(1);
+        });
+    }
+
+    @Test
+    void shouldRotateWithSelectConditionalUpdateAndInsert() {
+
+        RefreshTokenWithRaw token = refreshTokenService.createRefreshToken(user, UUID.randomUUID());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        refreshTokenService.rotateRefreshToken(token.getRawToken());
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+}
@@ -18,8 +18,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,6 +34,9 @@ public class RefreshTokenServiceTest {
     @Mock
     private JwtProperties jwtProperties;
 
+    @Mock
+    private RefreshTokenReuseDetector refreshTokenReuseDetector;
+
     @InjectMocks
     private RefreshTokenService refreshTokenService;
 
@@ -44,13 +45,11 @@ public class RefreshTokenServiceTest {
 
         User user = UserTestDataProvider.user(1L);
 
-        RefreshToken savedRefreshToken = AuthTestDataProvider.refreshToken(user);
+        RefreshToken savedRefreshToken = AuthTestDataProvider.refreshToken(user, AuthTestDataProvider.REFRESH_TOKEN_ID);
 
         JwtProperties.RefreshToken refreshTokenProperties = mock(JwtProperties.RefreshToken.class);
         long expiration = AuthTestDataProvider.REFRESH_TOKEN_EXPIRATION;
 
-        RefreshTokenWithRaw response = new RefreshTokenWithRaw(savedRefreshToken, savedRefreshToken.getToken());
-
         when(jwtProperties.getRefreshToken()).thenReturn(refreshTokenProperties);
         when(refreshTokenProperties.getExpiration()).thenReturn(expiration);
         when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(savedRefreshToken);
@@ -58,242 +57,338 @@ public class RefreshTokenServiceTest {
         RefreshTokenWithRaw result = refreshTokenService.createRefreshToken(user, AuthTestDataProvider.REFRESH_TOKEN_SESSION);
 
         assertThat(result).isNotNull();
-        assertThat(result.getRawToken()).isNotBlank();
-        assertThat(result.getRefreshToken().getToken()).isNotBlank();
+        assertThat(result.getRawToken()).startsWith(AuthTestDataProvider.REFRESH_TOKEN_ID + ".");
+        assertThat(result.getRawToken().substring(result.getRawToken().indexOf('.') + 1)).hasSize(43);
         assertThat(result.getRefreshToken().getExpiryDate()).isAfter(Instant.now());
         assertThat(result.getRefreshToken().getUser()).isEqualTo(user);
 
         verify(jwtProperties).getRefreshToken();
         verify(refreshTokenProperties).getExpiration();
-        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(refreshTokenRepository).save(argThat(refreshToken ->
+                refreshToken.getToken() == null && refreshToken.getSecretHash().length == 32));
     }
 
     @Test
     void shouldValidateRefreshToken() {
 
-        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
         User user = UserTestDataProvider.user(1L);
         RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(rawToken))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
 
         RefreshToken result = refreshTokenService.validateRefreshToken(rawToken);
 
         assertThat(result).isNotNull();
-        assertThat(result.getToken()).isNotBlank();
         assertThat(result.getExpiryDate()).isAfter(Instant.now());
         assertThat(result.getUser()).isEqualTo(user);
 
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
+        verify(refreshTokenRepository, never()).findByToken(any());
+    }
+
+    @Test
+    void shouldThrowWhenValidateRefreshTokenCalledWithWrongSecret() {
+
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
+
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
+
+        assertThatThrownBy(() -> refreshTokenService.validateRefreshToken(AuthTestDataProvider.REFRESH_TOKEN_ID + ".wrong-secret"))
+                .isInstanceOf(RefreshTokenNotFoundException.class)
+                .hasMessage("Refresh token not found");
+    }
+
+    @Test
+    void shouldThrowWhenValidateRefreshTokenCalledWithMalformedId() {
+
+        assertThatThrownBy(() -> refreshTokenService.validateRefreshToken("abc." + AuthTestDataProvider.REFRESH_TOKEN_SECRET))
+                .isInstanceOf(RefreshTokenNotFoundException.class)
+                .hasMessage("Refresh token not found");
+
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void shouldValidateLegacyRefreshTokenWhileEnabled() {
+
+        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+
+        User user = UserTestDataProvider.user(1L);
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
+
+        JwtProperties.RefreshToken refreshTokenProperties = mock(JwtProperties.RefreshToken.class);
+        when(jwtProperties.getRefreshToken()).thenReturn(refreshTokenProperties);
+        when(refreshTokenProperties.isLegacyFormatEnabled()).thenReturn(true);
+        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(rawToken))).thenReturn(Optional.of(refreshToken));
+
+        RefreshToken result = refreshTokenService.validateRefreshToken(rawToken);
+
+        assertThat(result.getUser()).isEqualTo(user);
+
         verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(rawToken));
+        verify(refreshTokenRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldThrowWhenValidateLegacyRefreshTokenCalledWhileDisabled() {
+
+        JwtProperties.RefreshToken refreshTokenProperties = mock(JwtProperties.RefreshToken.class);
+        when(jwtProperties.getRefreshToken()).thenReturn(refreshTokenProperties);
+        when(refreshTokenProperties.isLegacyFormatEnabled()).thenReturn(false);
+
+        assertThatThrownBy(() -> refreshTokenService.validateRefreshToken(AuthTestDataProvider.REFRESH_TOKEN_STRING))
+                .isInstanceOf(RefreshTokenNotFoundException.class)
+                .hasMessage("Refresh token not found");
+
+        verifyNoInteractions(refreshTokenRepository);
     }
 
     @Test
     void shouldThrowWhenValidateRefreshTokenCalledWithRevokedToken() {
 
-        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
         RefreshToken refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
 
         refreshToken.setRevoked(true);
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(rawToken))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
 
         assertThatThrownBy(() -> refreshTokenService.validateRefreshToken(rawToken))
                 .isInstanceOf(RefreshTokenRevokedException.class)
                 .hasMessage("Refresh token revoked");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(rawToken));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
+        verify(refreshTokenReuseDetector).revokedTokenPresented(refreshToken);
+    }
+
+    @Test
+    void shouldRejectRecentlyRotatedRefreshTokenWithoutLookup() {
+
+        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
+
+        when(refreshTokenReuseDetector.isRecentlyRotated(eq(AuthTestDataProvider.REFRESH_TOKEN_ID), any(byte[].class))).thenReturn(true);
+
+        assertThatThrownBy(() -> refreshTokenService.validateRefreshToken(rawToken))
+                .isInstanceOf(RefreshTokenRevokedException.class)
+                .hasMessage("Refresh token revoked");
+
+        verifyNoInteractions(refreshTokenRepository);
     }
 
     @Test
     void shouldThrowWhenValidateRefreshTokenCalledWithExpiredToken() {
 
-        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
         RefreshToken refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
 
         refreshToken.setExpiryDate(Instant.now().minusMillis(AuthTestDataProvider.REFRESH_TOKEN_EXPIRATION));
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(rawToken))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
 
         assertThatThrownBy(() -> refreshTokenService.validateRefreshToken(rawToken))
                 .isInstanceOf(RefreshTokenExpiredException.class)
                 .hasMessage("Refresh token expired");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(rawToken));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
     void shouldThrowWhenValidateRefreshTokenCalledWithNonexistentToken() {
 
-        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String rawToken = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(rawToken))).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> refreshTokenService.validateRefreshToken(rawToken))
                 .isInstanceOf(RefreshTokenNotFoundException.class)
                 .hasMessage("Refresh token not found");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(rawToken));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
     void shouldRevokeRefreshTokenByToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
-        RefreshToken notRevokedToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
+        RefreshToken notRevokedToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L), AuthTestDataProvider.REFRESH_TOKEN_ID);
 
-        RefreshToken revokedToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
-        revokedToken.setRevoked(true);
-
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.of(notRevokedToken));
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(revokedToken);
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(notRevokedToken));
+        when(refreshTokenRepository.revokeIfActive(eq(AuthTestDataProvider.REFRESH_TOKEN_ID), any(Instant.class))).thenReturn(1);
 
         refreshTokenService.revokeRefreshToken(token);
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
-        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
+        verify(refreshTokenRepository).revokeIfActive(eq(AuthTestDataProvider.REFRESH_TOKEN_ID), any(Instant.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void shouldThrowWhenRevokeRefreshTokenLosesRaceToConcurrentRevocation() {
+
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
+
+        RefreshToken notRevokedToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L), AuthTestDataProvider.REFRESH_TOKEN_ID);
+
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(notRevokedToken));
+        when(refreshTokenRepository.revokeIfActive(eq(AuthTestDataProvider.REFRESH_TOKEN_ID), any(Instant.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.revokeRefreshToken(token))
+                .isInstanceOf(RefreshTokenRevokedException.class)
+                .hasMessage("Refresh token revoked");
     }
 
     @Test
     void shouldThrowWhenRevokeRefreshTokenCalledWithRevokedToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
         RefreshToken refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
         refreshToken.setRevoked(true);
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
 
         assertThatThrownBy(() -> refreshTokenService.revokeRefreshToken(token))
                 .isInstanceOf(RefreshTokenRevokedException.class)
                 .hasMessage("Refresh token revoked");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
     void shouldThrowWhenRevokeRefreshTokenCalledWithExpiredToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
         RefreshToken refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
         refreshToken.setExpiryDate(Instant.now().minusMillis(AuthTestDataProvider.REFRESH_TOKEN_EXPIRATION));
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
 
         assertThatThrownBy(() -> refreshTokenService.revokeRefreshToken(token))
                 .isInstanceOf(RefreshTokenExpiredException.class)
                 .hasMessage("Refresh token expired");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
     void shouldThrowWhenRevokeRefreshTokenCalledWithNonexistentToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> refreshTokenService.revokeRefreshToken(token))
                 .isInstanceOf(RefreshTokenNotFoundException.class)
                 .hasMessage("Refresh token not found");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
     void shouldRotateRefreshToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
         User user = UserTestDataProvider.user(1L);
-        RefreshToken oldRefreshToken = AuthTestDataProvider.refreshToken(user);
-
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.of(oldRefreshToken));
+        RefreshToken oldRefreshToken = AuthTestDataProvider.refreshToken(user, AuthTestDataProvider.REFRESH_TOKEN_ID);
 
-        List<RefreshToken> oldTokens = List.of(oldRefreshToken);
-        RefreshToken revokedToken = AuthTestDataProvider.refreshToken(user);
-        revokedToken.setRevoked(true);
-        List<RefreshToken> revokedTokens = List.of(revokedToken);
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(oldRefreshToken));
 
-        when(refreshTokenRepository.findAllByUserAndSessionAndRevokedFalse(oldRefreshToken.getUser(), oldRefreshToken.getSession()))
-                .thenReturn(oldTokens);
-        when(refreshTokenRepository.saveAll(anyList())).thenReturn(revokedTokens);
+        when(refreshTokenRepository.revokeIfActive(eq(AuthTestDataProvider.REFRESH_TOKEN_ID), any(Instant.class))).thenReturn(1);
 
         JwtProperties.RefreshToken refreshTokenProperties = mock(JwtProperties.RefreshToken.class);
         when(jwtProperties.getRefreshToken()).thenReturn(refreshTokenProperties);
         when(refreshTokenProperties.getExpiration()).thenReturn(AuthTestDataProvider.REFRESH_TOKEN_EXPIRATION);
 
-        RefreshToken savedRefreshToken = AuthTestDataProvider.refreshToken(user);
+        RefreshToken savedRefreshToken = AuthTestDataProvider.refreshToken(user, 2L);
         when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(savedRefreshToken);
 
         RefreshTokenWithRaw result = refreshTokenService.rotateRefreshToken(token);
 
         assertThat(result).isNotNull();
-        assertThat(result.getRefreshToken().getToken()).isNotBlank();
+        assertThat(result.getRawToken()).startsWith("2.");
         assertThat(result.getRefreshToken().getSession()).isNotNull();
         assertThat(result.getRefreshToken().isRevoked()).isFalse();
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
-        verify(refreshTokenRepository).findAllByUserAndSessionAndRevokedFalse(oldRefreshToken.getUser(), oldRefreshToken.getSession());
-        verify(refreshTokenRepository).saveAll(anyList());
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
+        verify(refreshTokenRepository).revokeIfActive(eq(AuthTestDataProvider.REFRESH_TOKEN_ID), any(Instant.class));
+        verify(refreshTokenReuseDetector).rotated(eq(oldRefreshToken), any(Instant.class));
         verify(jwtProperties).getRefreshToken();
         verify(refreshTokenProperties).getExpiration();
         verify(refreshTokenRepository).save(any(RefreshToken.class));
     }
 
 
+    @Test
+    void shouldNotIssueTokenWhenRotateRefreshTokenLosesRaceToConcurrentRotation() {
+
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
+        RefreshToken oldRefreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L), AuthTestDataProvider.REFRESH_TOKEN_ID);
+
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(oldRefreshToken));
+        when(refreshTokenRepository.revokeIfActive(eq(AuthTestDataProvider.REFRESH_TOKEN_ID), any(Instant.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.rotateRefreshToken(token))
+                .isInstanceOf(RefreshTokenRevokedException.class)
+                .hasMessage("Refresh token revoked");
+
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+        verify(refreshTokenReuseDetector, never()).rotated(any(RefreshToken.class), any(Instant.class));
+    }
+
     @Test
     void shouldThrowWhenRotateRefreshTokenCalledWithRevokedToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
         RefreshToken refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
 
         refreshToken.setRevoked(true);
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
 
         assertThatThrownBy(() -> refreshTokenService.rotateRefreshToken(token))
                 .isInstanceOf(RefreshTokenRevokedException.class)
                 .hasMessage("Refresh token revoked");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
     void shouldThrowWhenRotateRefreshTokenCalledWithExpiredToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
         RefreshToken refreshToken = AuthTestDataProvider.refreshToken(UserTestDataProvider.user(1L));
 
         refreshToken.setExpiryDate(Instant.now().minusMillis(AuthTestDataProvider.REFRESH_TOKEN_EXPIRATION));
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.of(refreshToken));
 
         assertThatThrownBy(() -> refreshTokenService.rotateRefreshToken(token))
                 .isInstanceOf(RefreshTokenExpiredException.class)
                 .hasMessage("Refresh token expired");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
     void shouldThrowWhenRotateRefreshTokenCalledWithNonexistentToken() {
 
-        String token = AuthTestDataProvider.REFRESH_TOKEN_STRING;
+        String token = AuthTestDataProvider.REFRESH_TOKEN_VALUE;
 
-        when(refreshTokenRepository.findByToken(TokenUtils.hashSHA256(token))).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findById(AuthTestDataProvider.REFRESH_TOKEN_ID)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> refreshTokenService.rotateRefreshToken(token))
                 .isInstanceOf(RefreshTokenNotFoundException.class)
                 .hasMessage("Refresh token not found");
 
-        verify(refreshTokenRepository).findByToken(TokenUtils.hashSHA256(token));
+        verify(refreshTokenRepository).findById(AuthTestDataProvider.REFRESH_TOKEN_ID);
     }
 
     @Test
@@ -302,38 +397,12 @@ public class RefreshTokenServiceTest {
         User user = UserTestDataProvider.user(1L);
         UUID session = AuthTestDataProvider.REFRESH_TOKEN_SESSION;
 
-        RefreshToken refreshToken1 = AuthTestDataProvider.refreshToken(user);
-        RefreshToken refreshToken2 = AuthTestDataProvider.refreshToken(user);
-
-        when(refreshTokenRepository.findAllByUserAndSessionAndRevokedFalse(user, session))
-                .thenReturn(List.of(refreshToken1, refreshToken2));
+        when(refreshTokenRepository.revokeAllByUserAndSession(eq(user), eq(session), any(Instant.class))).thenReturn(2);
 
         refreshTokenService.revokeTokensBySession(user, session);
 
-        verify(refreshTokenRepository).findAllByUserAndSessionAndRevokedFalse(user, session);
-
-        verify(refreshTokenRepository).saveAll(argThat(iterable -> {
-
-            List<RefreshToken> list = new ArrayList<>();
-            iterable.forEach(list::add);
-
-            return list.size() == 2 && list.stream().allMatch(RefreshToken::isRevoked);
-        }));
-    }
-
-    @Test
-    void shouldNotRevokedTokensBySessionWhenAreNotTokens() {
-
-        User user = UserTestDataProvider.user(1L);
-        UUID session = AuthTestDataProvider.REFRESH_TOKEN_SESSION;
-
-        when(refreshTokenRepository.findAllByUserAndSessionAndRevokedFalse(user, session))
-                .thenReturn(List.of());
-
-        refreshTokenService.revokeTokensBySession(user, session);
-
-        verify(refreshTokenRepository).findAllByUserAndSessionAndRevokedFalse(user, session);
-        verify(refreshTokenRepository, never()).saveAll(anyList());
+        verify(refreshTokenRepository).revokeAllByUserAndSession(eq(user), eq(session), any(Instant.class));
+        verifyNoMoreInteractions(refreshTokenRepository);
     }
 
     @Test
@@ -341,35 +410,11 @@ public class RefreshTokenServiceTest {
 
         User user = UserTestDataProvider.user(1L);
 
-        RefreshToken refreshToken1 = AuthTestDataProvider.refreshToken(user);
-        RefreshToken refreshToken2 = AuthTestDataProvider.refreshToken(user);
-
-        when(refreshTokenRepository.findAllByUserAndRevokedFalse(user)).thenReturn(List.of(refreshToken1, refreshToken2));
-
-        refreshTokenService.revokeAllTokensForUser(user);
-
-        verify(refreshTokenRepository).findAllByUserAndRevokedFalse(user);
-
-        verify(refreshTokenRepository).saveAll(argThat(iterable -> {
-
-            List<RefreshToken> list = new ArrayList<>();
-            iterable.forEach(list::add);
-
-            return list.size() == 2 && list.stream().allMatch(RefreshToken::isRevoked);
-        }));
-    }
-
-    @Test
-    void shouldNotRevokedTokensByUserWhenAreNotTokens() {
-
-        User user = UserTestDataProvider.user(1L);
-
-        when(refreshTokenRepository.findAllByUserAndRevokedFalse(user))
-                .thenReturn(List.of());
+        when(refreshTokenRepository.revokeAllByUser(eq(user), any(Instant.class))).thenReturn(2);
 
         refreshTokenService.revokeAllTokensForUser(user);
 
-        verify(refreshTokenRepository).findAllByUserAndRevokedFalse(user);
-        verify(refreshTokenRepository, never()).saveAll(anyList());
+        verify(refreshTokenRepository).revokeAllByUser(eq(user), any(Instant.class));
+        verifyNoMoreInteractions(refreshTokenRepository);
     }
 }
@@ -7,10 +7,10 @@ import com.benjamerc.spring_security_course.authentication.dto.request.AuthRegis
 import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
 import com.benjamerc.spring_security_course.authentication.dto.response.AuthRegisterResponse;
 import com.benjamerc.spring_security_course.authentication.dto.token.RefreshTokenWithRaw;
+import com.benjamerc.spring_security_course.authentication.exception.PasswordHashingUnavailableException;
 import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenExpiredException;
 import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenNotFoundException;
 import com.benjamerc.spring_security_course.authentication.exception.RefreshTokenRevokedException;
-import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
 import com.benjamerc.spring_security_course.authentication.mapper.AuthenticationMapper;
 import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
 import com.benjamerc.spring_security_course.authentication.security.RefreshTokenService;
@@ -19,11 +19,13 @@ import com.benjamerc.spring_security_course.security.core.CustomUserDetails;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
 import com.benjamerc.spring_security_course.users.model.User;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.benjamerc.spring_security_course.users.service.UsernameFilter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,6 +33,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -59,6 +62,9 @@ public class AuthenticationServiceTest {
     @Mock
     private RefreshTokenService refreshTokenService;
 
+    @Mock
+    private UsernameFilter usernameFilter;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
@@ -85,25 +91,28 @@ public class AuthenticationServiceTest {
         assertThat(result).usingRecursiveComparison().isEqualTo(registerResponse);
 
         verify(passwordEncoder).encode(user.getPassword());
+        verify(usernameFilter).add(registerRequest.username());
         verify(userRepository).save(any(User.class));
         verify(authenticationMapper).toAuthRegisterResponse(savedUser);
     }
 
     @Test
-    void shouldThrowUsernameAlreadyExistsWhenRegisterCalledWithExistingUsername() {
+    void shouldInsertWithoutExistenceCheckAndPropagateUniqueViolationWhenRegisterCalledWithExistingUsername() {
 
         User user = UserTestDataProvider.user(null);
 
         AuthRegisterRequest registerRequest =
                 AuthTestDataProvider.authRegisterRequest(user.getUsername(), user.getName(), user.getPassword());
 
-        when(userRepository.existsByUsername(registerRequest.username())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn(user.getPassword());
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_username"));
 
         assertThatThrownBy(() -> authenticationService.register(registerRequest))
-                .isInstanceOf(UsernameAlreadyExistsException.class)
-                .hasMessage("Username already exists");
+                .isInstanceOf(DataIntegrityViolationException.class);
 
-        verify(userRepository).existsByUsername(registerRequest.username());
+        verify(usernameFilter, never()).isTaken(anyString());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository).save(any(User.class));
     }
 
     @Test
@@ -139,6 +148,81 @@ public class AuthenticationServiceTest {
         verify(refreshTokenService).createRefreshToken(eq(userDetails.getUser()), any(UUID.class));
     }
 
+    @Test
+    void shouldUpgradePasswordHashWhenAuthenticatingWithOutdatedEncoding() {
+
+        CustomUserDetails userDetails = UserTestDataProvider.testUser(1L);
+        User user = userDetails.getUser();
+        String outdatedHash = user.getPassword();
+
+        Authentication authenticationMock = mock(Authentication.class);
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
+
+        AuthAuthenticateRequest authenticateRequest =
+                AuthTestDataProvider.authAuthenticateRequest(user.getUsername(), UserTestDataProvider.PASSWORD);
+
+        when(authenticationMock.getPrincipal()).thenReturn(userDetails);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authenticationMock);
+        when(passwordEncoder.upgradeEncoding(outdatedHash)).thenReturn(true);
+        when(passwordEncoder.encode(UserTestDataProvider.PASSWORD)).thenReturn("{argon2}upgraded");
+        when(refreshTokenService.createRefreshToken(eq(user), any(UUID.class)))
+                .thenReturn(AuthTestDataProvider.refreshTokenWithRaw(refreshToken, AuthTestDataProvider.REFRESH_TOKEN_VALUE));
+
+        authenticationService.login(authenticateRequest);
+
+        verify(passwordEncoder).encode(UserTestDataProvider.PASSWORD);
+        verify(userRepository).updatePasswordIfUnchanged(user.getId(), outdatedHash, "{argon2}upgraded");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void shouldNotUpgradePasswordHashWhenEncodingIsCurrent() {
+
+        CustomUserDetails userDetails = UserTestDataProvider.testUser(1L);
+        User user = userDetails.getUser();
+
+        Authentication authenticationMock = mock(Authentication.class);
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
+
+        when(authenticationMock.getPrincipal()).thenReturn(userDetails);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authenticationMock);
+        when(passwordEncoder.upgradeEncoding(user.getPassword())).thenReturn(false);
+        when(refreshTokenService.createRefreshToken(eq(user), any(UUID.class)))
+                .thenReturn(AuthTestDataProvider.refreshTokenWithRaw(refreshToken, AuthTestDataProvider.REFRESH_TOKEN_VALUE));
+
+        authenticationService.login(AuthTestDataProvider.authAuthenticateRequest());
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).updatePasswordIfUnchanged(any(), any(), any());
+    }
+
+    @Test
+    void shouldAuthenticateWhenPasswordHashUpgradeIsRejected() {
+
+        CustomUserDetails userDetails = UserTestDataProvider.testUser(1L);
+        User user = userDetails.getUser();
+        String outdatedHash = user.getPassword();
+
+        Authentication authenticationMock = mock(Authentication.class);
+        RefreshToken refreshToken = AuthTestDataProvider.refreshToken(user);
+
+        when(authenticationMock.getPrincipal()).thenReturn(userDetails);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authenticationMock);
+        when(passwordEncoder.upgradeEncoding(outdatedHash)).thenReturn(true);
+        when(passwordEncoder.encode(anyString()))
+                .thenThrow(new PasswordHashingUnavailableException("Too many concurrent authentication requests", Duration.ofSeconds(1)));
+        when(accessTokenService.createAccessToken(user)).thenReturn(AuthTestDataProvider.ACCESS_TOKEN);
+        when(refreshTokenService.createRefreshToken(eq(user), any(UUID.class)))
+                .thenReturn(AuthTestDataProvider.refreshTokenWithRaw(refreshToken, AuthTestDataProvider.REFRESH_TOKEN_VALUE));
+
+        AuthAuthenticateResponse result = authenticationService.login(AuthTestDataProvider.authAuthenticateRequest());
+
+        assertThat(result.accessToken()).isEqualTo(AuthTestDataProvider.ACCESS_TOKEN);
+        assertThat(user.getPassword()).isEqualTo(outdatedHash);
+
+        verify(userRepository, never()).updatePasswordIfUnchanged(any(), any(), any());
+    }
+
     @Test
     void shouldThrowExceptionWhenLoginCalledWithInvalidCredentials() {
 
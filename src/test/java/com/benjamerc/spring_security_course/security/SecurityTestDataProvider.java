@@ -0,0 +1,29 @@
+package com.benjamerc.spring_security_course.security;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+
+import java.time.Duration;
+
+public class SecurityTestDataProvider {
+
+    public static final String SECRET_KEY = "c2VjcmV0LWtleS1mb3ItYWNjZXNzLXRva2VuLXNlcnZpY2UtdGVzdHMtMDEyMzQ1";
+    public static final String OTHER_SECRET_KEY = "b3RoZXItc2VjcmV0LWtleS1mb3ItYWNjZXNzLXRva2VuLXNlcnZpY2UtdGVzdHM=";
+    public static final long ACCESS_TOKEN_EXPIRATION = 900000L;
+
+    public static JwtProperties jwtProperties(String algorithm) {
+
+        JwtProperties.Keys keys = new JwtProperties.Keys();
+        keys.setAlgorithm(algorithm);
+        keys.setRotationInterval(Duration.ofDays(7));
+        keys.setActivationDelay(Duration.ofMinutes(10));
+        keys.setRefreshInterval(Duration.ofMinutes(1));
+        keys.setLegacyHmacEnabled(true);
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey(SECRET_KEY);
+        jwtProperties.setExpiration(ACCESS_TOKEN_EXPIRATION);
+        jwtProperties.setKeys(keys);
+
+        return jwtProperties;
+    }
+}
@@ -0,0 +1,80 @@
+package com.benjamerc.spring_security_course.security.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SecurityConfigTest {
+
+    private static final String PASSWORD = "pass123";
+
+    @Test
+    void shouldMatchUnprefixedBcryptHashAndFlagItForUpgrade() {
+
+        PasswordEncoder passwordEncoder = SecurityConfig.delegatingPasswordEncoder(properties("bcrypt", 10));
+
+        String legacyHash = new BCryptPasswordEncoder(10).encode(PASSWORD);
+
+        assertThat(passwordEncoder.matches(PASSWORD, legacyHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(legacyHash)).isTrue();
+    }
+
+    @Test
+    void shouldEncodeWithConfiguredIdAndNotFlagCurrentHashForUpgrade() {
+
+        PasswordEncoder passwordEncoder = SecurityConfig.delegatingPasswordEncoder(properties("bcrypt", 10));
+
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        assertThat(hash).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches(PASSWORD, hash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void shouldFlagBcryptHashForUpgradeWhenCostIncreases() {
+
+        String hash = SecurityConfig.delegatingPasswordEncoder(properties("bcrypt", 4)).encode(PASSWORD);
+
+        PasswordEncoder passwordEncoder = SecurityConfig.delegatingPasswordEncoder(properties("bcrypt", 5));
+
+        assertThat(passwordEncoder.matches(PASSWORD, hash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(hash)).isTrue();
+    }
+
+    @Test
+    void shouldMigrateFromBcryptToArgon2() {
+
+        String bcryptHash = SecurityConfig.delegatingPasswordEncoder(properties("bcrypt", 4)).encode(PASSWORD);
+
+        PasswordEncoder passwordEncoder = SecurityConfig.delegatingPasswordEncoder(properties("argon2", 4));
+
+        assertThat(passwordEncoder.matches(PASSWORD, bcryptHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(bcryptHash)).isTrue();
+
+        String argon2Hash = passwordEncoder.encode(PASSWORD);
+
+        assertThat(argon2Hash).startsWith("{argon2}$argon2id$");
+        assertThat(passwordEncoder.matches(PASSWORD, argon2Hash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(argon2Hash)).isFalse();
+    }
+
+    private static PasswordEncoderProperties properties(String encodingId, int strength) {
+
+        PasswordEncoderProperties.Argon2 argon2 = new PasswordEncoderProperties.Argon2();
+        argon2.setSaltLength(16);
+        argon2.setHashLength(32);
+        argon2.setParallelism(1);
+        argon2.setMemory(1024);
+        argon2.setIterations(1);
+
+        PasswordEncoderProperties properties = new PasswordEncoderProperties();
+        properties.setEncodingId(encodingId);
+        properties.setStrength(strength);
+        properties.setArgon2(argon2);
+
+        return properties;
+    }
+}
@@ -0,0 +1,84 @@
+package com.benjamerc.spring_security_course.security.controller;
+
+import com.benjamerc.spring_security_course.security.core.AccessTokenCache;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
+import com.benjamerc.spring_security_course.security.core.AccessTokenService;
+import com.benjamerc.spring_security_course.security.core.SigningKeyRing;
+import com.benjamerc.spring_security_course.shared.advice.GlobalExceptionHandler;
+import com.benjamerc.spring_security_course.shared.builder.ApiErrorBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.security.KeyPair;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JwksController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({GlobalExceptionHandler.class, ApiErrorBuilder.class})
+public class JwksControllerTest {
+
+    private static final String ETAG = "keyring-etag";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SigningKeyRing signingKeyRing;
+
+    @MockitoBean
+    private AccessTokenService accessTokenService;
+
+    @MockitoBean
+    private AccessTokenCache accessTokenCache;
+
+    @MockitoBean
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @Test
+    void shouldReturn200AndPublicKeys() throws Exception {
+
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwkSet jwks = Jwks.set()
+                .add(Jwks.builder().key(keyPair.getPublic()).id("kid-1").algorithm("ES256").publicKeyUse("sig").build())
+                .build();
+
+        when(signingKeyRing.jwksETag()).thenReturn(ETAG);
+        when(signingKeyRing.jwks()).thenReturn(jwks);
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + ETAG + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kid").value("kid-1"))
+                .andExpect(jsonPath("$.keys[0].kty").value("EC"))
+                .andExpect(jsonPath("$.keys[0].alg").value("ES256"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+
+        verify(signingKeyRing).jwks();
+    }
+
+    @Test
+    void shouldReturn304WhenETagMatches() throws Exception {
+
+        when(signingKeyRing.jwksETag()).thenReturn(ETAG);
+
+        mockMvc.perform(get("/.well-known/jwks.json")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + ETAG + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(signingKeyRing, never()).jwks();
+    }
+}
@@ -0,0 +1,78 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessTokenCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AccessTokenCache accessTokenCache;
+
+    @BeforeEach
+    void setup() {
+
+        JwtProperties jwtProperties = new JwtProperties();
+        JwtProperties.Cache cache = new JwtProperties.Cache();
+        cache.setMaximumSize(100);
+        jwtProperties.setCache(cache);
+
+        meterRegistry = new SimpleMeterRegistry();
+        accessTokenCache = new AccessTokenCache(jwtProperties, meterRegistry);
+    }
+
+    @Test
+    void shouldReturnCachedAuthenticationForSameToken() {
+
+        UsernamePasswordAuthenticationToken authentication = authentication();
+
+        accessTokenCache.put(TOKEN, authentication, new Date(), new Date(System.currentTimeMillis() + 60000));
+
+        AccessTokenCache.CachedAuthentication cached = accessTokenCache.get(TOKEN);
+
+        assertThat(cached.authentication()).isSameAs(authentication);
+        assertThat(cached.userId()).isEqualTo(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "accessTokens").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldMissWhenTokenReusesSignatureWithDifferentPayload() {
+
+        accessTokenCache.put(TOKEN, authentication(), new Date(), new Date(System.currentTimeMillis() + 60000));
+
+        assertThat(accessTokenCache.get("header.tampered.signature")).isNull();
+    }
+
+    @Test
+    void shouldNotReturnExpiredAuthentication() {
+
+        accessTokenCache.put(TOKEN, authentication(), new Date(), new Date(System.currentTimeMillis() - 1000));
+
+        assertThat(accessTokenCache.get(TOKEN)).isNull();
+    }
+
+    @Test
+    void shouldMissForUnknownToken() {
+
+        assertThat(accessTokenCache.get(TOKEN)).isNull();
+        assertThat(accessTokenCache.get("malformed")).isNull();
+    }
+
+    private UsernamePasswordAuthenticationToken authentication() {
+
+        CustomUserDetails userDetails = UserTestDataProvider.testUser(1L);
+
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+}
@@ -0,0 +1,110 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.model.AccessTokenRevocation;
+import com.benjamerc.spring_security_course.security.repository.AccessTokenRevocationRepository;
+import com.benjamerc.spring_security_course.shared.event.ClusterEvent;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AccessTokenRevocationsTest {
+
+    private static final long EXPIRATION = 900000L;
+
+    @Mock
+    private AccessTokenRevocationRepository accessTokenRevocationRepository;
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @BeforeEach
+    void setup() {
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setExpiration(EXPIRATION);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        accessTokenRevocations = new AccessTokenRevocations(accessTokenRevocationRepository, jwtProperties, clusterEventBus, meterRegistry);
+    }
+
+    @Test
+    void shouldRejectTokensIssuedBeforeRevocation() {
+
+        Instant issuedBefore = Instant.now().minusSeconds(60);
+
+        accessTokenRevocations.revokeAll(1L);
+
+        assertThat(accessTokenRevocations.isRevoked(1L, issuedBefore)).isTrue();
+        assertThat(accessTokenRevocations.isRevoked(1L, null)).isTrue();
+        assertThat(accessTokenRevocations.isRevoked(1L, Instant.now().plusSeconds(2))).isFalse();
+        assertThat(accessTokenRevocations.isRevoked(2L, issuedBefore)).isFalse();
+        assertThat(accessTokenRevocations.isRevoked(null, issuedBefore)).isFalse();
+
+        verify(accessTokenRevocationRepository).upsertNotBefore(eq(1L), any(Instant.class));
+        verify(accessTokenRevocationRepository, never()).save(any());
+        verify(clusterEventBus).publish(argThat(event -> event.userId().equals(1L) && event.notBefore() != null));
+    }
+
+    @Test
+    void shouldApplyRevocationsPublishedByOtherNodes() {
+
+        Instant revokedAt = Instant.now();
+
+        accessTokenRevocations.onClusterEvent(ClusterEvent.accessTokensRevoked(1L, revokedAt));
+        accessTokenRevocations.onClusterEvent(ClusterEvent.userUpdated(2L));
+
+        assertThat(accessTokenRevocations.isRevoked(1L, revokedAt.minusSeconds(1))).isTrue();
+        assertThat(accessTokenRevocations.isRevoked(2L, revokedAt.minusSeconds(1))).isFalse();
+
+        verifyNoInteractions(accessTokenRevocationRepository, clusterEventBus);
+    }
+
+    @Test
+    void shouldLoadPersistedRevocationsAndPruneExpiredOnes() {
+
+        Instant revokedAt = Instant.now().minusSeconds(60);
+
+        when(accessTokenRevocationRepository.findAllByNotBeforeAfter(any(Instant.class)))
+                .thenReturn(List.of(new AccessTokenRevocation(1L, revokedAt)));
+
+        accessTokenRevocations.refresh();
+
+        assertThat(accessTokenRevocations.isRevoked(1L, revokedAt.minusSeconds(1))).isTrue();
+        assertThat(meterRegistry.get("access_tokens.revocations").gauge().value()).isEqualTo(1);
+
+        verify(accessTokenRevocationRepository).deleteExpired(argThat(cutoff ->
+                cutoff.isBefore(Instant.now().minusMillis(EXPIRATION - 1000))));
+    }
+
+    @Test
+    void shouldDropRevocationsOlderThanAccessTokenLifetime() {
+
+        Instant expired = Instant.now().minusMillis(EXPIRATION).minusSeconds(60);
+
+        when(accessTokenRevocationRepository.findAllByNotBeforeAfter(any(Instant.class)))
+                .thenReturn(List.of(new AccessTokenRevocation(1L, expired)));
+
+        accessTokenRevocations.refresh();
+
+        assertThat(accessTokenRevocations.isRevoked(1L, expired.minusSeconds(1))).isFalse();
+        assertThat(meterRegistry.get("access_tokens.revocations").gauge().value()).isZero();
+    }
+}
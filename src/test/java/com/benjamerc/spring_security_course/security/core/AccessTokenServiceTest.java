@@ -0,0 +1,136 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.SecurityTestDataProvider;
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.repository.SigningKeyRepository;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class AccessTokenServiceTest {
+
+    private JwtProperties jwtProperties;
+
+    private AccessTokenService accessTokenService;
+
+    @BeforeEach
+    void setup() {
+
+        jwtProperties = SecurityTestDataProvider.jwtProperties("ES256");
+
+        accessTokenService = accessTokenService(jwtProperties);
+    }
+
+    @Test
+    void shouldCreateAndValidateAccessToken() {
+
+        User user = UserTestDataProvider.user(1L);
+
+        String token = accessTokenService.createAccessToken(user);
+
+        Claims claims = accessTokenService.validateAccessToken(token);
+
+        assertThat(claims.getSubject()).isEqualTo(user.getUsername());
+        assertThat(claims.get("id", Long.class)).isEqualTo(user.getId());
+        assertThat(claims.get("role", String.class)).isEqualTo(user.getRole().name());
+    }
+
+    @Test
+    void shouldSignWithKeyIdOfActiveKey() {
+
+        String token = accessTokenService.createAccessToken(UserTestDataProvider.user(1L));
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+
+        assertThat(header).contains("\"kid\"").contains("\"alg\":\"ES256\"");
+    }
+
+    @Test
+    void shouldCreateAndValidateEdDsaAccessToken() {
+
+        AccessTokenService edDsaService = accessTokenService(SecurityTestDataProvider.jwtProperties("EdDSA"));
+
+        String token = edDsaService.createAccessToken(UserTestDataProvider.user(1L));
+
+        assertThat(edDsaService.validateAccessToken(token).getSubject()).isEqualTo(UserTestDataProvider.USER_USERNAME);
+    }
+
+    @Test
+    void shouldRejectTokenSignedByAnotherKeyRing() {
+
+        AccessTokenService otherService = accessTokenService(SecurityTestDataProvider.jwtProperties("ES256"));
+
+        String token = otherService.createAccessToken(UserTestDataProvider.user(1L));
+
+        assertThatThrownBy(() -> accessTokenService.validateAccessToken(token))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void shouldAcceptLegacyHmacTokenWhileEnabled() {
+
+        String token = legacyToken(SecurityTestDataProvider.SECRET_KEY);
+
+        assertThat(accessTokenService.validateAccessToken(token).getSubject()).isEqualTo(UserTestDataProvider.USER_USERNAME);
+    }
+
+    @Test
+    void shouldRejectLegacyHmacTokenWhenDisabled() {
+
+        String token = legacyToken(SecurityTestDataProvider.SECRET_KEY);
+
+        jwtProperties.getKeys().setLegacyHmacEnabled(false);
+
+        assertThatThrownBy(() -> accessTokenService.validateAccessToken(token))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void shouldRejectLegacyTokensSignedWithPreviousSecretAfterSecretKeyChanges() {
+
+        String token = legacyToken(SecurityTestDataProvider.SECRET_KEY);
+
+        jwtProperties.setSecretKey(SecurityTestDataProvider.OTHER_SECRET_KEY);
+
+        assertThatThrownBy(() -> accessTokenService.validateAccessToken(token))
+                .isInstanceOf(SignatureException.class);
+
+        assertThat(accessTokenService.validateAccessToken(legacyToken(SecurityTestDataProvider.OTHER_SECRET_KEY)).getSubject())
+                .isEqualTo(UserTestDataProvider.USER_USERNAME);
+    }
+
+    private static AccessTokenService accessTokenService(JwtProperties jwtProperties) {
+
+        SigningKeyRing signingKeyRing = new SigningKeyRing(mock(SigningKeyRepository.class), jwtProperties);
+        signingKeyRing.init();
+
+        AccessTokenService accessTokenService = new AccessTokenService(jwtProperties, signingKeyRing);
+        accessTokenService.init();
+
+        return accessTokenService;
+    }
+
+    private static String legacyToken(String secretKey) {
+
+        return Jwts.builder()
+                .subject(UserTestDataProvider.USER_USERNAME)
+                .claim("id", 1L)
+                .claim("role", "USER")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+                .compact();
+    }
+}
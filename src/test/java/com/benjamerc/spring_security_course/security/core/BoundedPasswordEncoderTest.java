@@ -0,0 +1,167 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.authentication.exception.PasswordHashingUnavailableException;
+import com.benjamerc.spring_security_course.security.config.PasswordEncoderProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoundedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setup() {
+
+        PasswordEncoderProperties properties = new PasswordEncoderProperties();
+        properties.setStrength(4);
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        passwordEncoder = new BoundedPasswordEncoder(delegate, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void shouldDelegateEncodeAndMatchesToPool() {
+
+        when(delegate.encode("password")).thenAnswer(invocation -> Thread.currentThread().getName());
+        when(delegate.matches("password", "hash")).thenReturn(true);
+
+        assertThat(passwordEncoder.encode("password")).startsWith("password-encoder-");
+        assertThat(passwordEncoder.matches("password", "hash")).isTrue();
+
+        assertThat(meterRegistry.get("password_encoder.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password_encoder.hash").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectWhenPoolAndQueueAreFull() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(delegate.encode("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("slow"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("slow"));
+        await(() -> meterRegistry.get("executor.queued").tag("name", "passwordEncoder").gauge().value() == 1);
+
+        assertThatThrownBy(() -> passwordEncoder.encode("rejected"))
+                .isInstanceOf(PasswordHashingUnavailableException.class)
+                .extracting("retryAfter")
+                .isEqualTo(Duration.ofSeconds(3));
+
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(meterRegistry.get("password_encoder.rejected").counter().count()).isEqualTo(1);
+
+        verify(delegate, never()).encode("rejected");
+    }
+
+    @Test
+    void shouldEncodeAllInOrderWithoutExceedingPoolCapacity() {
+
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return "hash-" + invocation.getArgument(0);
+        });
+
+        assertThat(passwordEncoder.encodeAll(List.of("first", "second", "third")))
+                .containsExactly("hash-first", "hash-second", "hash-third");
+
+        assertThat(meterRegistry.get("password_encoder.hash").tag("operation", "encode").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("password_encoder.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldRejectEncodeAllWhenNoCapacityIsLeft() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(delegate.encode("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("slow"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("slow"));
+        await(() -> meterRegistry.get("executor.queued").tag("name", "passwordEncoder").gauge().value() == 1);
+
+        assertThatThrownBy(() -> passwordEncoder.encodeAll(List.of("first", "second")))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(meterRegistry.get("password_encoder.rejected").counter().count()).isEqualTo(1);
+
+        verify(delegate, never()).encode("first");
+        verify(delegate, never()).encode("second");
+    }
+
+    @Test
+    void shouldPropagateDelegateRuntimeException() {
+
+        when(delegate.matches("password", "hash")).thenThrow(new IllegalArgumentException("bad hash"));
+
+        assertThatThrownBy(() -> passwordEncoder.matches("password", "hash"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad hash");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,190 @@
+package com.benjamerc.spring_security_course.security.core;
+
+import com.benjamerc.spring_security_course.security.SecurityTestDataProvider;
+import com.benjamerc.spring_security_course.security.config.JwtProperties;
+import com.benjamerc.spring_security_course.security.model.SigningKey;
+import com.benjamerc.spring_security_course.security.repository.SigningKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SigningKeyRingTest {
+
+    @Mock
+    private SigningKeyRepository signingKeyRepository;
+
+    private JwtProperties jwtProperties;
+
+    private SigningKeyRing signingKeyRing;
+
+    @BeforeEach
+    void setup() {
+
+        jwtProperties = SecurityTestDataProvider.jwtProperties("ES256");
+
+        signingKeyRing = new SigningKeyRing(signingKeyRepository, jwtProperties);
+    }
+
+    @Test
+    void shouldGenerateActiveKeyWhenRingIsEmpty() {
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of());
+
+        signingKeyRing.rotate();
+
+        SigningKey saved = captureSavedKey();
+
+        assertThat(saved.getAlgorithm()).isEqualTo("ES256");
+        assertThat(saved.getActivatesAt()).isEqualTo(saved.getCreatedAt());
+        assertThat(signingKeyRing.signingKey().kid()).isEqualTo(saved.getKid());
+        assertThat(signingKeyRing.verificationKey(saved.getKid())).isNotNull();
+        assertThat(signingKeyRing.jwks().getKeys()).hasSize(1);
+
+        verify(signingKeyRepository).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void shouldReuseStoredKeyWhenRotationIsNotDue() {
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of());
+        signingKeyRing.rotate();
+        SigningKey stored = captureSavedKey();
+        String etag = signingKeyRing.jwksETag();
+
+        SigningKeyRing restarted = new SigningKeyRing(signingKeyRepository, jwtProperties);
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of(stored));
+
+        restarted.rotate();
+
+        verify(signingKeyRepository, times(1)).save(any(SigningKey.class));
+        assertThat(restarted.signingKey().kid()).isEqualTo(stored.getKid());
+        assertThat(restarted.signingKey().privateKey()).isNotNull();
+        assertThat(restarted.jwksETag()).isEqualTo(etag);
+    }
+
+    @Test
+    void shouldPublishNextKeyBeforeActivatingIt() {
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of());
+        signingKeyRing.rotate();
+        SigningKey current = captureSavedKey();
+
+        Duration rotationInterval = jwtProperties.getKeys().getRotationInterval();
+        current.setActivatesAt(Instant.now().minus(rotationInterval).plus(Duration.ofMinutes(5)));
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of(current));
+        String etag = signingKeyRing.jwksETag();
+
+        signingKeyRing.rotate();
+
+        ArgumentCaptor<SigningKey> captor = ArgumentCaptor.forClass(SigningKey.class);
+        verify(signingKeyRepository, times(2)).save(captor.capture());
+        SigningKey next = captor.getAllValues().get(1);
+
+        assertThat(next.getActivatesAt()).isAfter(Instant.now());
+        assertThat(signingKeyRing.signingKey().kid()).isEqualTo(current.getKid());
+        assertThat(signingKeyRing.verificationKey(next.getKid())).isNotNull();
+        assertThat(signingKeyRing.jwks().getKeys()).hasSize(2);
+        assertThat(signingKeyRing.jwksETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void shouldReplaceKeyThatCanNoLongerBeDecrypted() {
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of());
+        signingKeyRing.rotate();
+        SigningKey stored = captureSavedKey();
+
+        jwtProperties.setSecretKey("cm90YXRlZC1zZWNyZXQta2V5LWZvci1zaWduaW5nLWtleS1yaW5nLXRlc3RzLTAx");
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of(stored));
+
+        signingKeyRing.rotate();
+
+        assertThat(signingKeyRing.signingKey().kid()).isNotEqualTo(stored.getKid());
+        assertThat(signingKeyRing.verificationKey(stored.getKid())).isNotNull();
+    }
+
+    @Test
+    void shouldClaimNextGenerationAfterNewestStoredKey() {
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of());
+        signingKeyRing.rotate();
+        SigningKey current = captureSavedKey();
+
+        assertThat(current.getGeneration()).isEqualTo(1);
+
+        current.setActivatesAt(Instant.now().minus(jwtProperties.getKeys().getRotationInterval()));
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of(current));
+
+        signingKeyRing.rotate();
+
+        assertThat(captureSavedKey().getGeneration()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldAdoptKeyGeneratedByAnotherNodeForSameGeneration() {
+
+        SigningKey winner = keyFromAnotherNode();
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(winner));
+        when(signingKeyRepository.save(any(SigningKey.class))).thenThrow(new DataIntegrityViolationException("uk_signing_keys_generation"));
+
+        signingKeyRing.rotate();
+
+        assertThat(signingKeyRing.signingKey().kid()).isEqualTo(winner.getKid());
+        assertThat(signingKeyRing.jwks().getKeys()).hasSize(1);
+    }
+
+    @Test
+    void shouldReloadKeysOnceWhenKidIsUnknown() {
+
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of());
+        signingKeyRing.rotate();
+        SigningKey own = captureSavedKey();
+
+        SigningKey other = keyFromAnotherNode();
+        when(signingKeyRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of(other, own));
+
+        assertThat(signingKeyRing.verificationKey(other.getKid())).isNotNull();
+        assertThat(signingKeyRing.verificationKey(own.getKid())).isNotNull();
+        assertThat(signingKeyRing.verificationKey("unknown-kid")).isNull();
+
+        verify(signingKeyRepository, times(2)).findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class));
+    }
+
+    private SigningKey keyFromAnotherNode() {
+
+        SigningKeyRepository otherRepository = mock(SigningKeyRepository.class);
+        when(otherRepository.findAllByExpiresAtAfterOrderByCreatedAtDesc(any(Instant.class))).thenReturn(List.of());
+
+        new SigningKeyRing(otherRepository, jwtProperties).rotate();
+
+        ArgumentCaptor<SigningKey> captor = ArgumentCaptor.forClass(SigningKey.class);
+        verify(otherRepository).save(captor.capture());
+
+        return captor.getValue();
+    }
+
+    private SigningKey captureSavedKey() {
+
+        ArgumentCaptor<SigningKey> captor = ArgumentCaptor.forClass(SigningKey.class);
+        verify(signingKeyRepository, atLeastOnce()).save(captor.capture());
+
+        return captor.getValue();
+    }
+}
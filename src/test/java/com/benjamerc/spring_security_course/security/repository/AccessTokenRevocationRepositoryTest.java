@@ -0,0 +1,40 @@
+package com.benjamerc.spring_security_course.security.repository;
+
+import com.benjamerc.spring_security_course.security.model.AccessTokenRevocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class AccessTokenRevocationRepositoryTest {
+
+    @Autowired
+    private AccessTokenRevocationRepository accessTokenRevocationRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void shouldInsertOnceAndKeepLatestNotBeforeOnUpsert() {
+
+        Instant first = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Instant later = first.plusSeconds(30);
+
+        accessTokenRevocationRepository.upsertNotBefore(1L, first);
+        accessTokenRevocationRepository.upsertNotBefore(1L, later);
+        accessTokenRevocationRepository.upsertNotBefore(1L, first);
+        testEntityManager.clear();
+
+        assertThat(accessTokenRevocationRepository.findById(1L))
+                .get()
+                .extracting(AccessTokenRevocation::getNotBefore)
+                .isEqualTo(later);
+        assertThat(accessTokenRevocationRepository.count()).isEqualTo(1);
+    }
+}
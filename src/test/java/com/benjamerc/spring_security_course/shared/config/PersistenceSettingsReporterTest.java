@@ -0,0 +1,51 @@
+package com.benjamerc.spring_security_course.shared.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
+public class PersistenceSettingsReporterTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldReportEffectivePoolAndJpaSettings(CapturedOutput output) {
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("test-pool");
+        dataSource.setMaximumPoolSize(12);
+        dataSource.setLeakDetectionThreshold(60000);
+        dataSource.addDataSourceProperty("prepareThreshold", 5);
+        dataSource.addDataSourceProperty("password", "secret");
+
+        when(entityManagerFactory.getProperties()).thenReturn(Map.of(
+                "hibernate.show_sql", false,
+                "hibernate.jdbc.batch_size", "50"
+        ));
+
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.jpa.open-in-view", "false");
+
+        new PersistenceSettingsReporter(dataSource, entityManagerFactory, environment).report();
+
+        assertThat(output)
+                .contains("Connection pool test-pool: maximumPoolSize=12")
+                .contains("leakDetectionThreshold=60000ms")
+                .contains("prepareThreshold=5")
+                .doesNotContain("secret")
+                .contains("JPA: openInView=false, showSql=false")
+                .contains("batchSize=50");
+    }
+}
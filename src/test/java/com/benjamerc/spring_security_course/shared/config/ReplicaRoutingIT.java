@@ -0,0 +1,220 @@
+package com.benjamerc.spring_security_course.shared.config;
+
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
+import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ReplicaRoutingIT.PRIMARY_URL,
+        "application.datasource.replicas.enabled=true",
+        "application.datasource.replicas.urls=" + ReplicaRoutingIT.REPLICA_URL,
+        "application.datasource.replicas.username=sa",
+        "application.datasource.replicas.password=password",
+        "application.datasource.replicas.lag-query=select lag_seconds from replica_lag",
+        "application.datasource.replicas.max-lag=5s",
+        "application.datasource.replicas.health-check-interval=1h"
+})
+public class ReplicaRoutingIT {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+
+    private static final String REPLICA_NAME = "Replica Name";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private IntegrationTestHelper helper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setup() {
+
+        DataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "password");
+
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("delete from refresh_tokens");
+        replica.update("delete from users");
+
+        userRepository.deleteAll();
+
+        helper.createUser(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.USER_NAME, UserTestDataProvider.PASSWORD, Role.USER);
+
+        replicateUsers();
+        setReplicaLag(0);
+
+        replicaRoutingDataSource.checkReplicas();
+
+        assertThat(replicaRoutingDataSource.getHealthyReplicas()).containsExactly("replica-0");
+    }
+
+    @Test
+    void shouldServeReadOnlyTransactionsFromReplica() {
+
+        double before = routedTo("replica");
+
+        AuthAuthenticateResponse tokens = login();
+
+        replica.update("update users set name = ? where username = ?", REPLICA_NAME, UserTestDataProvider.USER_USERNAME);
+
+        assertThat(profileName(tokens.accessToken())).isEqualTo(REPLICA_NAME);
+        assertThat(routedTo("replica")).isGreaterThan(before);
+    }
+
+    @Test
+    void shouldKeepRefreshRotationOnPrimary() {
+
+        AuthAuthenticateResponse tokens = login();
+
+        assertThat(replica.queryForObject("select count(*) from refresh_tokens", Long.class)).isZero();
+
+        ResponseEntity<AuthAuthenticateResponse> refreshed = refresh(tokens.refreshToken());
+
+        assertThat(refreshed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(refreshed.getBody()).isNotNull();
+
+        ResponseEntity<AuthAuthenticateResponse> refreshedAgain = refresh(refreshed.getBody().refreshToken());
+
+        assertThat(refreshedAgain.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLagExceedsLimit() {
+
+        AuthAuthenticateResponse tokens = login();
+
+        replica.update("update users set name = ? where username = ?", REPLICA_NAME, UserTestDataProvider.USER_USERNAME);
+        setReplicaLag(60);
+
+        replicaRoutingDataSource.checkReplicas();
+
+        double before = routedTo("fallback");
+
+        assertThat(replicaRoutingDataSource.getHealthyReplicas()).isEmpty();
+        assertThat(profileName(tokens.accessToken())).isEqualTo(UserTestDataProvider.USER_NAME);
+        assertThat(routedTo("fallback")).isGreaterThan(before);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaHealthCheckFails() {
+
+        AuthAuthenticateResponse tokens = login();
+
+        replica.update("update users set name = ? where username = ?", REPLICA_NAME, UserTestDataProvider.USER_USERNAME);
+        replica.execute("drop table replica_lag");
+
+        replicaRoutingDataSource.checkReplicas();
+
+        assertThat(replicaRoutingDataSource.getHealthyReplicas()).isEmpty();
+        assertThat(profileName(tokens.accessToken())).isEqualTo(UserTestDataProvider.USER_NAME);
+    }
+
+    private void replicateUsers() {
+
+        jdbcTemplate.query("select id, name, password, role, username from users", resultSet -> {
+            replica.update(
+                    "insert into users (id, name, password, role, username) values (?, ?, ?, ?, ?)",
+                    resultSet.getLong("id"),
+                    resultSet.getString("name"),
+                    resultSet.getString("password"),
+                    resultSet.getString("role"),
+                    resultSet.getString("username")
+            );
+        });
+    }
+
+    private void setReplicaLag(int seconds) {
+
+        replica.execute("create table if not exists replica_lag (lag_seconds double precision)");
+        replica.update("delete from replica_lag");
+        replica.update("insert into replica_lag (lag_seconds) values (?)", seconds);
+    }
+
+    private AuthAuthenticateResponse login() {
+
+        ResponseEntity<AuthAuthenticateResponse> response = restTemplate.postForEntity(
+                "/api/auth/authenticate",
+                AuthTestDataProvider.authAuthenticateRequest(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD),
+                AuthAuthenticateResponse.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+
+        return response.getBody();
+    }
+
+    private String profileName(String accessToken) {
+
+        ResponseEntity<UserProfileResponse> response = restTemplate.exchange(
+                "/api/user/me",
+                HttpMethod.GET,
+                new HttpEntity<>(helper.authorizedHeaders(accessToken)),
+                UserProfileResponse.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+
+        return response.getBody().name();
+    }
+
+    private ResponseEntity<AuthAuthenticateResponse> refresh(String refreshToken) {
+
+        return restTemplate.postForEntity(
+                "/api/auth/refresh",
+                AuthTestDataProvider.authRefreshTokenRequest(refreshToken),
+                AuthAuthenticateResponse.class
+        );
+    }
+
+    private double routedTo(String target) {
+
+        return meterRegistry.get("datasource.routing").tag("target", target).counter().count();
+    }
+}
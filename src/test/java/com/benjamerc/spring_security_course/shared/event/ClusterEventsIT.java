@@ -0,0 +1,185 @@
+package com.benjamerc.spring_security_course.shared.event;
+
+import com.benjamerc.spring_security_course.SpringSecurityCourseApplication;
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
+import com.benjamerc.spring_security_course.authentication.dto.response.AuthAuthenticateResponse;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
+import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.security.repository.AccessTokenRevocationRepository;
+import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
+import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
+import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ClusterEventsIT.URL,
+        "application.cluster-events.poll-interval=" + ClusterEventsIT.POLL_INTERVAL
+})
+public class ClusterEventsIT {
+
+    static final String URL = "jdbc:h2:mem:cluster-events;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+    static final String POLL_INTERVAL = "100ms";
+
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(5);
+    private static final String RENAMED_USERNAME = "renamed@email.com";
+    private static final long REVOKED_USER_ID = 1_000_000L;
+
+    private static ConfigurableApplicationContext otherNode;
+    private static String otherNodeUrl;
+
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private IntegrationTestHelper helper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccessTokenRevocations accessTokenRevocations;
+    @Autowired private AccessTokenRevocationRepository accessTokenRevocationRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private String userToken;
+    private String adminToken;
+    private Long userId;
+
+    @BeforeAll
+    static void startOtherNode() {
+
+        otherNode = new SpringApplicationBuilder(SpringSecurityCourseApplication.class)
+                .profiles("test")
+                .initializers(context -> context.getBeanFactory().registerSingleton("testRestTemplate", new TestRestTemplate()))
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + URL,
+                        "--application.cluster-events.poll-interval=" + POLL_INTERVAL
+                );
+
+        otherNodeUrl = "http://localhost:" + otherNode.getEnvironment().getProperty("local.server.port");
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+
+        if (otherNode != null) {
+            otherNode.close();
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+
+        userRepository.deleteAll();
+
+        userId = helper.createUser(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.USER_NAME, UserTestDataProvider.PASSWORD, Role.USER).getId();
+        helper.createUser(UserTestDataProvider.ADMIN_USERNAME, UserTestDataProvider.ADMIN_NAME, UserTestDataProvider.PASSWORD, Role.ADMIN);
+
+        userToken = helper.authenticateAndGetTokens(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD).accessToken();
+        adminToken = helper.authenticateAndGetTokens(UserTestDataProvider.ADMIN_USERNAME, UserTestDataProvider.PASSWORD).accessToken();
+    }
+
+    @Test
+    void shouldRejectAccessTokenOnOtherNodeAfterForceLogoutAll() {
+
+        assertThat(profileOnOtherNode().getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/admin/users/" + userId + "/logout-all",
+                HttpMethod.POST,
+                new HttpEntity<>(helper.authorizedHeaders(adminToken)),
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        await().atMost(PROPAGATION_TIMEOUT).untilAsserted(() ->
+                assertThat(profileOnOtherNode().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+
+    @Test
+    void shouldEvictRenamedUserFromOtherNodeCache() {
+
+        assertThat(loginOnOtherNode(UserTestDataProvider.USER_USERNAME)).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/admin/users/" + userId,
+                HttpMethod.PATCH,
+                new HttpEntity<>(new AdminUserUpdateRequest(RENAMED_USERNAME, null, null), helper.authorizedHeaders(adminToken)),
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        await().atMost(PROPAGATION_TIMEOUT).untilAsserted(() ->
+                assertThat(loginOnOtherNode(UserTestDataProvider.USER_USERNAME)).isEqualTo(HttpStatus.UNAUTHORIZED));
+
+        assertThat(loginOnOtherNode(RENAMED_USERNAME)).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldRecordRevocationFromOtherNodeWhileLocalRevocationIsUncommitted() throws Exception {
+
+        AccessTokenRevocations otherNodeRevocations = otherNode.getBean(AccessTokenRevocations.class);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Future<?> remote = transactionTemplate.execute(status -> {
+
+                accessTokenRevocations.revokeAll(REVOKED_USER_ID);
+
+                Future<?> pending = executor.submit(() -> otherNodeRevocations.revokeAll(REVOKED_USER_ID));
+
+                await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(2)).until(() -> !pending.isDone());
+
+                return pending;
+            });
+
+            remote.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(accessTokenRevocationRepository.findById(REVOKED_USER_ID)).isPresent();
+    }
+
+    private HttpStatusCode loginOnOtherNode(String username) {
+
+        return restTemplate.postForEntity(
+                otherNodeUrl + "/api/auth/authenticate",
+                AuthTestDataProvider.authAuthenticateRequest(username, UserTestDataProvider.PASSWORD),
+                AuthAuthenticateResponse.class
+        ).getStatusCode();
+    }
+
+    private ResponseEntity<UserProfileResponse> profileOnOtherNode() {
+
+        return restTemplate.exchange(
+                otherNodeUrl + "/api/user/me",
+                HttpMethod.GET,
+                new HttpEntity<>(helper.authorizedHeaders(userToken)),
+                UserProfileResponse.class
+        );
+    }
+}
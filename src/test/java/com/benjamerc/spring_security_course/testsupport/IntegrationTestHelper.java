@@ -7,7 +7,6 @@ import com.benjamerc.spring_security_course.authentication.exception.RefreshToke
 import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
 import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
 import com.benjamerc.spring_security_course.security.core.Role;
-import com.benjamerc.spring_security_course.security.core.TokenUtils;
 import com.benjamerc.spring_security_course.testsupport.dto.UserTokens;
 import com.benjamerc.spring_security_course.users.UserTestFactory;
 import com.benjamerc.spring_security_course.users.model.User;
@@ -80,11 +79,11 @@ public class IntegrationTestHelper {
                 .as("Expected a non-null refresh token in the authentication response")
                 .isNotNull();
 
-        String hashedToken = TokenUtils.hashSHA256(rawToken);
+        Long id = Long.valueOf(rawToken.substring(0, rawToken.indexOf('.')));
 
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(hashedToken)
+        RefreshToken refreshToken = refreshTokenRepository.findById(id)
                 .orElseThrow(() -> new RefreshTokenNotFoundException(
-                        "Refresh token not found in DB for hashed token: " + hashedToken));
+                        "Refresh token not found in DB for id: " + id));
 
         return new UserTokens(
                 response.getBody().accessToken(),
@@ -2,10 +2,14 @@ package com.benjamerc.spring_security_course.users;
 
 import com.benjamerc.spring_security_course.security.core.CustomUserDetails;
 import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserCreateRequest;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserImportRequest;
 import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
 import com.benjamerc.spring_security_course.users.dto.request.UserPartialUpdateRequest;
 import com.benjamerc.spring_security_course.users.model.User;
 
+import java.util.Arrays;
+
 public class UserTestDataProvider {
 
     public static final String ADMIN_USERNAME = "admin@email.com";
@@ -61,4 +65,11 @@ public class UserTestDataProvider {
 
         return new UserPartialUpdateRequest(username, name);
     }
+
+    public static AdminUserImportRequest adminUserImportRequest(String... usernames) {
+
+        return new AdminUserImportRequest(Arrays.stream(usernames)
+                .map(username -> new AdminUserCreateRequest(username, USER_NAME, PASSWORD, null))
+                .toList());
+    }
 }
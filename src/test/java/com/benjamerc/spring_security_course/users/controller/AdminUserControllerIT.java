@@ -1,14 +1,24 @@
 package com.benjamerc.spring_security_course.users.controller;
 
+import com.benjamerc.spring_security_course.authentication.model.RefreshToken;
+import com.benjamerc.spring_security_course.authentication.repository.RefreshTokenRepository;
 import com.benjamerc.spring_security_course.security.core.Role;
+import com.benjamerc.spring_security_course.shared.dto.error.ApiError;
 import com.benjamerc.spring_security_course.shared.dto.pagination.CustomPage;
+import com.benjamerc.spring_security_course.shared.exception.ErrorCode;
 import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
 import com.benjamerc.spring_security_course.testsupport.dto.UserTokens;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserImportRequest;
 import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserImportResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,9 +28,15 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -36,6 +52,15 @@ public class AdminUserControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private String userToken;
     private String adminToken;
 
@@ -101,6 +126,169 @@ public class AdminUserControllerIT {
         assertThat(response.getBody().isLastPage()).isTrue();
     }
 
+    @Test
+    void shouldWalkAllUsersWithKeysetCursor() {
+
+        for (int i = 0; i < 5; i++) {
+            helper.createUser("keyset" + i + "@email.com", "keyset" + i, UserTestDataProvider.PASSWORD, Role.USER);
+        }
+
+        HttpEntity<Void> entity = new HttpEntity<>(helper.authorizedHeaders(adminToken));
+
+        List<String> usernames = new ArrayList<>();
+        String cursor = "";
+        CustomPage<AdminUserSummaryResponse> page;
+
+        do {
+
+            ResponseEntity<CustomPage<AdminUserSummaryResponse>> response = restTemplate.exchange(
+                    "/api/admin/users?size=2&includeTotal=true&cursor={cursor}",
+                    HttpMethod.GET,
+                    entity,
+                    new ParameterizedTypeReference<CustomPage<AdminUserSummaryResponse>>() {},
+                    cursor
+            );
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            page = response.getBody();
+
+            assertThat(page).isNotNull();
+            assertThat(page.getTotalElements()).isEqualTo(7L);
+
+            page.getContent().forEach(user -> usernames.add(user.username()));
+            cursor = page.getNextCursor();
+
+        } while (!page.isLastPage());
+
+        assertThat(usernames).hasSize(7).isSorted();
+    }
+
+    @Test
+    void shouldReturn400WhenKeysetCursorIsInvalid() {
+
+        HttpEntity<Void> entity = new HttpEntity<>(helper.authorizedHeaders(adminToken));
+
+        ResponseEntity<ApiError> response = restTemplate.exchange(
+                "/api/admin/users?cursor=not-a-cursor",
+                HttpMethod.GET,
+                entity,
+                ApiError.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    void shouldExportAllUsersAsNdjson() throws Exception {
+
+        for (int i = 0; i < 5; i++) {
+            helper.createUser("export" + i + "@email.com", "export" + i, UserTestDataProvider.PASSWORD, Role.USER);
+        }
+
+        HttpEntity<Void> entity = new HttpEntity<>(helper.authorizedHeaders(adminToken));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/admin/users/export",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isNotNull();
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+        assertThat(response.getBody()).isNotNull();
+
+        List<AdminUserSummaryResponse> users = new ArrayList<>();
+
+        for (String line : response.getBody().lines().toList()) {
+            users.add(objectMapper.readValue(line, AdminUserSummaryResponse.class));
+        }
+
+        assertThat(users).hasSize((int) userRepository.count());
+        assertThat(users).extracting(AdminUserSummaryResponse::username).contains("export0@email.com", "export4@email.com");
+    }
+
+    @Test
+    void shouldReturn403WhenExportCalledWithIncorrectRole() {
+
+        HttpEntity<Void> entity = new HttpEntity<>(helper.authorizedHeaders(userToken));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/admin/users/export",
+                HttpMethod.GET,
+                entity,
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void shouldImportUsersInJdbcBatches() {
+
+        AdminUserImportRequest request = UserTestDataProvider.adminUserImportRequest(IntStream.range(0, 120)
+                .mapToObj(i -> "import" + i + "@email.com")
+                .toArray(String[]::new));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<AdminUserImportResponse> response = restTemplate.exchange(
+                "/api/admin/users/import",
+                HttpMethod.POST,
+                new HttpEntity<>(request, helper.authorizedHeaders(adminToken)),
+                AdminUserImportResponse.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().imported()).isEqualTo(120);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        assertThat(userRepository.count()).isEqualTo(122);
+    }
+
+    @Test
+    void shouldReturn400AndImportNothingWhenImportContainsExistingUsername() {
+
+        AdminUserImportRequest request = UserTestDataProvider.adminUserImportRequest(
+                "fresh@email.com",
+                UserTestDataProvider.USER_USERNAME
+        );
+
+        ResponseEntity<ApiError> response = restTemplate.exchange(
+                "/api/admin/users/import",
+                HttpMethod.POST,
+                new HttpEntity<>(request, helper.authorizedHeaders(adminToken)),
+                ApiError.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo(ErrorCode.USERNAME_ALREADY_EXISTS);
+        assertThat(userRepository.findByUsername("fresh@email.com")).isEmpty();
+    }
+
+    @Test
+    void shouldReturn403WhenImportCalledWithIncorrectRole() {
+
+        AdminUserImportRequest request = UserTestDataProvider.adminUserImportRequest("fresh@email.com");
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/admin/users/import",
+                HttpMethod.POST,
+                new HttpEntity<>(request, helper.authorizedHeaders(userToken)),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
     @Test
     void shouldReturn401WhenGetAllUsersCalledWithNotAuthenticatedAdmin() {
 
@@ -281,6 +469,22 @@ public class AdminUserControllerIT {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    void shouldRejectUserAccessTokenAfterDelete() {
+
+        assertThat(profileStatus(userToken)).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/admin/users/" + userId,
+                HttpMethod.DELETE,
+                new HttpEntity<>(helper.authorizedHeaders(adminToken)),
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(profileStatus(userToken)).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
     @Test
     void shouldReturn401WhenDeleteUserAccountCalledWithNotAuthenticatedAdmin() {
 
@@ -341,6 +545,23 @@ public class AdminUserControllerIT {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    void shouldRejectUserAccessTokenAfterForceLogoutAll() {
+
+        assertThat(profileStatus(userToken)).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/admin/users/" + userId + "/logout-all",
+                HttpMethod.POST,
+                new HttpEntity<>(helper.authorizedHeaders(adminToken)),
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(profileStatus(userToken)).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(profileStatus(adminToken)).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
     @Test
     void shouldReturn401WhenForceLogoutAllUserSessionsCalledWithNotAuthenticatedAdmin() {
 
@@ -385,4 +606,49 @@ public class AdminUserControllerIT {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
+
+    @Test
+    void shouldForceLogoutAllUserSessionsWithConstantStatementCount() {
+
+        long statementsForOneSession = forceLogoutAllAndCountStatements();
+
+        for (int i = 0; i < 10; i++) {
+            helper.authenticateAndGetTokens(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD);
+        }
+
+        long statementsForElevenSessions = forceLogoutAllAndCountStatements();
+
+        assertThat(statementsForElevenSessions).isEqualTo(statementsForOneSession);
+        assertThat(refreshTokenRepository.findAll())
+                .filteredOn(refreshToken -> refreshToken.getUser().getId().equals(userId))
+                .hasSize(11)
+                .allMatch(RefreshToken::isRevoked);
+    }
+
+    private long forceLogoutAllAndCountStatements() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/admin/users/" + userId + "/logout-all",
+                HttpMethod.POST,
+                new HttpEntity<>(helper.authorizedHeaders(adminToken)),
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private HttpStatusCode profileStatus(String accessToken) {
+
+        return restTemplate.exchange(
+                "/api/user/me",
+                HttpMethod.GET,
+                new HttpEntity<>(helper.authorizedHeaders(accessToken)),
+                Void.class
+        ).getStatusCode();
+    }
 }
@@ -1,12 +1,17 @@
 package com.benjamerc.spring_security_course.users.controller;
 
 import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
+import com.benjamerc.spring_security_course.security.core.AccessTokenCache;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
 import com.benjamerc.spring_security_course.security.core.AccessTokenService;
 import com.benjamerc.spring_security_course.shared.advice.GlobalExceptionHandler;
 import com.benjamerc.spring_security_course.shared.builder.ApiErrorBuilder;
 import com.benjamerc.spring_security_course.shared.dto.pagination.CustomPage;
+import com.benjamerc.spring_security_course.shared.exception.InvalidCursorException;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserImportRequest;
 import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserImportResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
 import com.benjamerc.spring_security_course.users.exception.UserNotFoundException;
@@ -22,8 +27,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -31,7 +39,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AdminUserController.class)
@@ -51,6 +61,12 @@ public class AdminUserControllerTest {
     @MockitoBean
     private AccessTokenService accessTokenService;
 
+    @MockitoBean
+    private AccessTokenCache accessTokenCache;
+
+    @MockitoBean
+    private AccessTokenRevocations accessTokenRevocations;
+
     @Test
     void shouldReturn200AndAllUsers() throws Exception {
 
@@ -60,7 +76,7 @@ public class AdminUserControllerTest {
         CustomPage<AdminUserSummaryResponse> customPage =
                 new CustomPage<>(
                         List.of(new AdminUserSummaryResponse(user.getId(), user.getUsername(), user.getName(), user.getRole())),
-                        0, 20, 1, 1, true
+                        0, 20, 1L, 1, true, null
                 );
 
         when(adminUserService.getAllUsers(any(Pageable.class))).thenReturn(customPage);
@@ -81,6 +97,76 @@ public class AdminUserControllerTest {
         verify(adminUserService).getAllUsers(any(Pageable.class));
     }
 
+    @Test
+    void shouldReturn200AndKeysetPageWhenCursorIsPresent() throws Exception {
+
+        User admin = UserTestDataProvider.admin(1L);
+        User user = UserTestDataProvider.user(2L);
+
+        CustomPage<AdminUserSummaryResponse> customPage = CustomPage.keyset(
+                List.of(new AdminUserSummaryResponse(user.getId(), user.getUsername(), user.getName(), user.getRole())),
+                1, null, "next-cursor"
+        );
+
+        when(adminUserService.getAllUsers("current-cursor", 1, false)).thenReturn(customPage);
+
+        mockMvc.perform(get("/api/admin/users")
+                        .param("cursor", "current-cursor")
+                        .param("size", "1")
+                        .with(user(admin.getUsername())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(user.getId()))
+                .andExpect(jsonPath("$.pageSize").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.lastPage").value(false))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+
+        verify(adminUserService).getAllUsers("current-cursor", 1, false);
+        verify(adminUserService, never()).getAllUsers(any(Pageable.class));
+    }
+
+    @Test
+    void shouldThrow400WhenCursorIsInvalid() throws Exception {
+
+        User admin = UserTestDataProvider.admin(1L);
+
+        when(adminUserService.getAllUsers("broken", 20, true))
+                .thenThrow(new InvalidCursorException("Invalid pagination cursor"));
+
+        mockMvc.perform(get("/api/admin/users")
+                        .param("cursor", "broken")
+                        .param("includeTotal", "true")
+                        .with(user(admin.getUsername())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+
+        verify(adminUserService).getAllUsers("broken", 20, true);
+    }
+
+    @Test
+    void shouldStreamUsersAsNdjson() throws Exception {
+
+        User admin = UserTestDataProvider.admin(1L);
+
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"id\":2}\n{\"id\":3}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(adminUserService).exportUsers(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/admin/users/export")
+                        .with(user(admin.getUsername())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":2}\n{\"id\":3}\n"));
+
+        verify(adminUserService).exportUsers(any(OutputStream.class));
+    }
+
     @Test
     void shouldReturn200AndUserById() throws Exception {
 
@@ -181,6 +267,47 @@ public class AdminUserControllerTest {
         verify(adminUserService).partialUpdate(nonExistentId, updateRequest);
     }
 
+    @Test
+    void shouldReturn201AndImportUsers() throws Exception {
+
+        User admin = UserTestDataProvider.admin(1L);
+
+        AdminUserImportRequest importRequest =
+                UserTestDataProvider.adminUserImportRequest("first@email.com", "second@email.com");
+
+        when(adminUserService.importUsers(importRequest)).thenReturn(new AdminUserImportResponse(2));
+
+        performPostWithBody("/api/admin/users/import", importRequest, admin)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        verify(adminUserService).importUsers(importRequest);
+    }
+
+    @Test
+    void shouldThrow400WhenImportCalledWithInvalidUser() throws Exception {
+
+        User admin = UserTestDataProvider.admin(1L);
+
+        AdminUserImportRequest importRequest = UserTestDataProvider.adminUserImportRequest("not-an-email");
+
+        performPostWithBody("/api/admin/users/import", importRequest, admin)
+                .andExpect(status().isBadRequest());
+
+        verify(adminUserService, never()).importUsers(any(AdminUserImportRequest.class));
+    }
+
+    @Test
+    void shouldThrow400WhenImportCalledWithNoUsers() throws Exception {
+
+        User admin = UserTestDataProvider.admin(1L);
+
+        performPostWithBody("/api/admin/users/import", UserTestDataProvider.adminUserImportRequest(), admin)
+                .andExpect(status().isBadRequest());
+
+        verify(adminUserService, never()).importUsers(any(AdminUserImportRequest.class));
+    }
+
     @Test
     void shouldReturn204AndDeleteUserAccount() throws Exception {
 
@@ -243,6 +370,14 @@ public class AdminUserControllerTest {
         verify(adminUserService).logoutAll(nonExistentId);
     }
 
+    private ResultActions performPostWithBody(String url, Object body, User admin) throws Exception {
+
+        return mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body))
+                .with(user(admin.getUsername())));
+    }
+
     private ResultActions performPatch(String url, long id, Object body, User admin) throws Exception {
 
         return mockMvc.perform(patch(url, id)
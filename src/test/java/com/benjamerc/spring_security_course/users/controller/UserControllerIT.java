@@ -1,13 +1,19 @@
 package com.benjamerc.spring_security_course.users.controller;
 
+import com.benjamerc.spring_security_course.authentication.AuthTestDataProvider;
 import com.benjamerc.spring_security_course.security.core.Role;
 import com.benjamerc.spring_security_course.testsupport.IntegrationTestHelper;
 import com.benjamerc.spring_security_course.testsupport.dto.UserTokens;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.config.UserCacheConfig;
 import com.benjamerc.spring_security_course.users.dto.request.UserPartialUpdateRequest;
 import com.benjamerc.spring_security_course.users.dto.response.UserPartialUpdateResponse;
 import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +37,12 @@ public class UserControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private String userToken;
     private String adminToken;
 
@@ -271,4 +283,67 @@ public class UserControllerIT {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
     }
+
+    @Test
+    void shouldLoadUserForLoginFromSecondLevelCache() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        helper.authenticateAndGetTokens(UserTestDataProvider.USER_USERNAME, UserTestDataProvider.PASSWORD);
+
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getNaturalIdQueryExecutionCount()).isZero();
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", UserCacheConfig.USER_REGION)
+                .tag("result", "hit")
+                .functionCounter()
+                .count()).isPositive();
+    }
+
+    @Test
+    void shouldNotAuthenticateCachedUserWithPreviousUsernameAfterProfileUpdate() {
+
+        String newUsername = "renamed@email.com";
+
+        HttpEntity<UserPartialUpdateRequest> entity = new HttpEntity<>(
+                UserTestDataProvider.userPartialUpdateRequest(newUsername, UserTestDataProvider.USER_NAME),
+                helper.authorizedHeaders(userToken)
+        );
+
+        ResponseEntity<UserPartialUpdateResponse> response = restTemplate.exchange(
+                "/api/user/me",
+                HttpMethod.PATCH,
+                entity,
+                UserPartialUpdateResponse.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(authenticate(UserTestDataProvider.USER_USERNAME).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(authenticate(newUsername).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldNotAuthenticateCachedUserAfterAccountDeletion() {
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/user/me",
+                HttpMethod.DELETE,
+                new HttpEntity<>(helper.authorizedHeaders(userToken)),
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(authenticate(UserTestDataProvider.USER_USERNAME).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private ResponseEntity<String> authenticate(String username) {
+
+        return restTemplate.postForEntity(
+                "/api/auth/authenticate",
+                AuthTestDataProvider.authAuthenticateRequest(username, UserTestDataProvider.PASSWORD),
+                String.class
+        );
+    }
 }
@@ -1,6 +1,8 @@
 package com.benjamerc.spring_security_course.users.controller;
 
 import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
+import com.benjamerc.spring_security_course.security.core.AccessTokenCache;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
 import com.benjamerc.spring_security_course.security.core.AccessTokenService;
 import com.benjamerc.spring_security_course.security.core.CustomUserDetails;
 import com.benjamerc.spring_security_course.shared.advice.GlobalExceptionHandler;
@@ -10,7 +12,7 @@ import com.benjamerc.spring_security_course.users.dto.request.UserPartialUpdateR
 import com.benjamerc.spring_security_course.users.dto.response.UserPartialUpdateResponse;
 import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
 import com.benjamerc.spring_security_course.users.exception.UserNotFoundException;
-import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.benjamerc.spring_security_course.users.service.UsernameFilter;
 import com.benjamerc.spring_security_course.users.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -46,7 +48,13 @@ public class UserControllerTest {
     private AccessTokenService accessTokenService;
 
     @MockitoBean
-    private UserRepository userRepository;
+    private AccessTokenCache accessTokenCache;
+
+    @MockitoBean
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @MockitoBean
+    private UsernameFilter usernameFilter;
 
     @Test
     void shouldReturn200AndUserProfile() throws Exception {
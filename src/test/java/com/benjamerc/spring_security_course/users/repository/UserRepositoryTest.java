@@ -1,13 +1,25 @@
 package com.benjamerc.spring_security_course.users.repository;
 
+import com.benjamerc.spring_security_course.security.core.Role;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
+import com.benjamerc.spring_security_course.users.dto.response.UserProfileResponse;
 import com.benjamerc.spring_security_course.users.model.User;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -17,6 +29,9 @@ public class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     @Test
     void shouldReturnUserByUsername() {
 
@@ -49,7 +64,7 @@ public class UserRepositoryTest {
 
         User user2 = UserTestDataProvider.user(null);
 
-        assertThatThrownBy(() -> userRepository.save(user2))
+        assertThatThrownBy(() -> userRepository.saveAndFlush(user2))
                 .isInstanceOf(DataIntegrityViolationException.class);
     }
 
@@ -71,4 +86,102 @@ public class UserRepositoryTest {
 
         assertThat(result).isFalse();
     }
+
+    @Test
+    void shouldReturnSummariesAfterKeysetPositionOrderedByUsernameAndId() {
+
+        User alice = userRepository.save(userWithUsername("alice@email.com"));
+        User bob = userRepository.save(userWithUsername("bob@email.com"));
+        User carol = userRepository.save(userWithUsername("carol@email.com"));
+
+        List<AdminUserSummaryResponse> firstPage = userRepository.findSummaryPage(Limit.of(2));
+        List<AdminUserSummaryResponse> secondPage = userRepository.findSummaryPageAfter(bob.getUsername(), bob.getId(), Limit.of(2));
+
+        assertThat(firstPage).extracting(AdminUserSummaryResponse::id).containsExactly(alice.getId(), bob.getId());
+        assertThat(secondPage).extracting(AdminUserSummaryResponse::id).containsExactly(carol.getId());
+    }
+
+    @Test
+    void shouldReturnSummariesPage() {
+
+        userRepository.save(userWithUsername("bob@email.com"));
+        userRepository.save(userWithUsername("alice@email.com"));
+
+        Page<AdminUserSummaryResponse> result = userRepository.findAllSummaries(PageRequest.of(0, 1, Sort.by("username")));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(AdminUserSummaryResponse::username).containsExactly("alice@email.com");
+    }
+
+    @Test
+    void shouldStreamAllSummariesOrderedById() {
+
+        User bob = userRepository.save(userWithUsername("bob@email.com"));
+        User alice = userRepository.save(userWithUsername("alice@email.com"));
+
+        try (Stream<AdminUserSummaryResponse> stream = userRepository.streamAllSummaries()) {
+
+            assertThat(stream.map(AdminUserSummaryResponse::id)).containsExactly(bob.getId(), alice.getId());
+        }
+    }
+
+    @Test
+    void shouldStreamAllUsernames() {
+
+        userRepository.save(userWithUsername("bob@email.com"));
+        userRepository.save(userWithUsername("alice@email.com"));
+
+        try (Stream<String> stream = userRepository.streamAllUsernames()) {
+
+            assertThat(stream).containsExactlyInAnyOrder("bob@email.com", "alice@email.com");
+        }
+    }
+
+    @Test
+    void shouldReturnProjectionsWithoutManagingEntities() {
+
+        User user = userRepository.save(UserTestDataProvider.user(null));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Optional<UserProfileResponse> profile = userRepository.findProfileById(user.getId());
+        Optional<AdminUserResponse> adminUser = userRepository.findAdminUserById(user.getId());
+
+        assertThat(profile).contains(new UserProfileResponse(user.getUsername(), user.getName()));
+        assertThat(adminUser).contains(new AdminUserResponse(user.getId(), user.getUsername(), user.getName(), user.getRole()));
+        assertThat(testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void shouldUpdateOnlyPasswordWhenStoredHashIsUnchanged() {
+
+        User user = userRepository.save(UserTestDataProvider.user(null));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        User renamed = userRepository.findById(user.getId()).orElseThrow();
+        renamed.setUsername("renamed@email.com");
+        renamed.setRole(Role.ADMIN);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        int updated = userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(), "{argon2}upgraded");
+        int stale = userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(), "{argon2}stale");
+        testEntityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(userRepository.findById(user.getId()))
+                .get()
+                .extracting(User::getUsername, User::getRole, User::getPassword)
+                .containsExactly("renamed@email.com", Role.ADMIN, "{argon2}upgraded");
+    }
+
+    private static User userWithUsername(String username) {
+
+        User user = UserTestDataProvider.user(null);
+        user.setUsername(username);
+
+        return user;
+    }
 }
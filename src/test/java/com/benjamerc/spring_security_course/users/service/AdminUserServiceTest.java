@@ -1,33 +1,49 @@
 package com.benjamerc.spring_security_course.users.service;
 
-import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
 import com.benjamerc.spring_security_course.authentication.security.RefreshTokenService;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
+import com.benjamerc.spring_security_course.security.core.BoundedPasswordEncoder;
+import com.benjamerc.spring_security_course.shared.event.ClusterEvent;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
 import com.benjamerc.spring_security_course.security.core.Role;
 import com.benjamerc.spring_security_course.shared.dto.pagination.CustomPage;
+import com.benjamerc.spring_security_course.shared.exception.InvalidCursorException;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
+import com.benjamerc.spring_security_course.users.dto.request.AdminUserImportRequest;
 import com.benjamerc.spring_security_course.users.dto.request.AdminUserUpdateRequest;
+import com.benjamerc.spring_security_course.users.dto.response.AdminUserImportResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserResponse;
 import com.benjamerc.spring_security_course.users.dto.response.AdminUserSummaryResponse;
 import com.benjamerc.spring_security_course.users.exception.UserNotFoundException;
 import com.benjamerc.spring_security_course.users.mapper.AdminUserMapper;
 import com.benjamerc.spring_security_course.users.model.User;
 import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +58,21 @@ public class AdminUserServiceTest {
     @Mock
     private RefreshTokenService refreshTokenService;
 
+    @Mock
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
+    @Mock
+    private UsernameFilter usernameFilter;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private AdminUserServiceImpl adminUserService;
 
@@ -50,21 +81,16 @@ public class AdminUserServiceTest {
 
         ReflectionTestUtils.setField(adminUserService, "maxPageSize", 50);
 
-        User user1 = UserTestDataProvider.user(1L);
-        User user2 = UserTestDataProvider.user(2L);
-        List<User> users = List.of(user1, user2);
-
-        AdminUserSummaryResponse dto1 = new AdminUserSummaryResponse(user1.getId(), user1.getUsername(), user1.getName(), user1.getRole());
-        AdminUserSummaryResponse dto2 = new AdminUserSummaryResponse(user2.getId(), user2.getUsername(), user2.getName(), user2.getRole());
-
-        when(adminUserMapper.toAdminUserSummaryResponse(user1)).thenReturn(dto1);
-        when(adminUserMapper.toAdminUserSummaryResponse(user2)).thenReturn(dto2);
+        List<AdminUserSummaryResponse> users = List.of(
+                summary(UserTestDataProvider.user(1L)),
+                summary(UserTestDataProvider.user(2L))
+        );
 
-        Page<User> userPage = new PageImpl<>(users, PageRequest.of(0, 20), users.size());
+        Page<AdminUserSummaryResponse> userPage = new PageImpl<>(users, PageRequest.of(0, 20), users.size());
 
-        CustomPage<User> customPage = CustomPage.from(userPage);
+        CustomPage<AdminUserSummaryResponse> customPage = CustomPage.from(userPage);
 
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
+        when(userRepository.findAllSummaries(any(Pageable.class))).thenReturn(userPage);
 
         CustomPage<AdminUserSummaryResponse> result = adminUserService.getAllUsers(PageRequest.of(0, 20));
 
@@ -76,9 +102,8 @@ public class AdminUserServiceTest {
         assertThat(result.getTotalPages()).isEqualTo(customPage.getTotalPages());
         assertThat(result.isLastPage()).isTrue();
 
-        verify(userRepository).findAll(any(Pageable.class));
-        verify(adminUserMapper).toAdminUserSummaryResponse(user1);
-        verify(adminUserMapper).toAdminUserSummaryResponse(user2);
+        verify(userRepository).findAllSummaries(any(Pageable.class));
+        verifyNoInteractions(adminUserMapper);
     }
 
     @Test
@@ -87,17 +112,13 @@ public class AdminUserServiceTest {
         int maxPageSizeValue = 50;
         ReflectionTestUtils.setField(adminUserService, "maxPageSize", maxPageSizeValue);
 
-        User user1 = UserTestDataProvider.user(1L);
-        List<User> users = List.of(user1);
+        List<AdminUserSummaryResponse> users = List.of(summary(UserTestDataProvider.user(1L)));
 
-        AdminUserSummaryResponse dto1 = new AdminUserSummaryResponse(user1.getId(), user1.getUsername(), user1.getName(), user1.getRole());
-        when(adminUserMapper.toAdminUserSummaryResponse(user1)).thenReturn(dto1);
+        Page<AdminUserSummaryResponse> userPage = new PageImpl<>(users, PageRequest.of(0, maxPageSizeValue), users.size());
 
-        Page<User> userPage = new PageImpl<>(users, PageRequest.of(0, maxPageSizeValue), users.size());
+        CustomPage<AdminUserSummaryResponse> customPage = CustomPage.from(userPage);
 
-        CustomPage<User> customPage = CustomPage.from(userPage);
-
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
+        when(userRepository.findAllSummaries(any(Pageable.class))).thenReturn(userPage);
 
         CustomPage<AdminUserSummaryResponse> result = adminUserService.getAllUsers(PageRequest.of(0, 100));
 
@@ -105,8 +126,140 @@ public class AdminUserServiceTest {
         assertThat(result.getContent()).hasSize(customPage.getContent().size());
         assertThat(result.getTotalElements()).isEqualTo(customPage.getTotalElements());
 
-        verify(userRepository).findAll(any(Pageable.class));
-        verify(adminUserMapper).toAdminUserSummaryResponse(user1);
+        verify(userRepository).findAllSummaries(any(Pageable.class));
+    }
+
+    @Test
+    void shouldReturnFirstKeysetPageWithNextCursor() {
+
+        ReflectionTestUtils.setField(adminUserService, "maxPageSize", 50);
+
+        when(userRepository.findSummaryPage(Limit.of(3))).thenReturn(List.of(
+                summary(UserTestDataProvider.user(1L)),
+                summary(UserTestDataProvider.user(2L)),
+                summary(UserTestDataProvider.user(3L))
+        ));
+
+        CustomPage<AdminUserSummaryResponse> result = adminUserService.getAllUsers("", 2, false);
+
+        assertThat(result.getContent()).extracting(AdminUserSummaryResponse::id).containsExactly(1L, 2L);
+        assertThat(result.getPageSize()).isEqualTo(2);
+        assertThat(result.getTotalElements()).isNull();
+        assertThat(result.isLastPage()).isFalse();
+        assertThat(result.getNextCursor()).isNotBlank();
+
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void shouldResumeKeysetPageAfterCursor() {
+
+        ReflectionTestUtils.setField(adminUserService, "maxPageSize", 50);
+
+        AdminUserSummaryResponse user1 = summary(UserTestDataProvider.user(1L));
+        AdminUserSummaryResponse user2 = summary(UserTestDataProvider.user(2L));
+
+        when(userRepository.findSummaryPage(Limit.of(2))).thenReturn(List.of(user1, user2));
+
+        String cursor = adminUserService.getAllUsers(null, 1, false).getNextCursor();
+
+        when(userRepository.findSummaryPageAfter(user1.username(), user1.id(), Limit.of(2))).thenReturn(List.of(user2));
+        when(userRepository.count()).thenReturn(2L);
+
+        CustomPage<AdminUserSummaryResponse> result = adminUserService.getAllUsers(cursor, 1, true);
+
+        assertThat(result.getContent()).extracting(AdminUserSummaryResponse::id).containsExactly(2L);
+        assertThat(result.getTotalElements()).isEqualTo(2L);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        assertThat(result.isLastPage()).isTrue();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldCapKeysetPageSizeToMaxPageSize() {
+
+        ReflectionTestUtils.setField(adminUserService, "maxPageSize", 50);
+
+        when(userRepository.findSummaryPage(Limit.of(51))).thenReturn(List.of());
+
+        CustomPage<AdminUserSummaryResponse> result = adminUserService.getAllUsers("", 100, false);
+
+        assertThat(result.getPageSize()).isEqualTo(50);
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.isLastPage()).isTrue();
+    }
+
+    @Test
+    void shouldThrowInvalidCursorExceptionWhenCursorCannotBeDecoded() {
+
+        ReflectionTestUtils.setField(adminUserService, "maxPageSize", 50);
+
+        assertThatThrownBy(() -> adminUserService.getAllUsers("not a cursor", 20, false))
+                .isInstanceOf(InvalidCursorException.class);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldExportUsersAsNdjsonAndCloseStream() throws Exception {
+
+        AtomicBoolean closed = new AtomicBoolean();
+        AdminUserSummaryResponse user1 = summary(UserTestDataProvider.user(1L));
+        AdminUserSummaryResponse user2 = summary(UserTestDataProvider.admin(2L));
+
+        when(userRepository.streamAllSummaries()).thenReturn(Stream.of(user1, user2).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        adminUserService.exportUsers(outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(0), AdminUserSummaryResponse.class)).isEqualTo(user1);
+        assertThat(objectMapper.readValue(lines.get(1), AdminUserSummaryResponse.class)).isEqualTo(user2);
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).endsWith("\n");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void shouldImportUsersWithEncodedPasswordsInSingleSaveAllAndFlush() {
+
+        AdminUserImportRequest request = UserTestDataProvider.adminUserImportRequest("first@email.com", "second@email.com");
+
+        when(passwordEncoder.encodeAll(List.of(UserTestDataProvider.PASSWORD, UserTestDataProvider.PASSWORD)))
+                .thenReturn(List.of("encodedPassword", "encodedPassword"));
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AdminUserImportResponse result = adminUserService.importUsers(request);
+
+        assertThat(result.imported()).isEqualTo(2);
+
+        InOrder inOrder = inOrder(userRepository, usernameFilter);
+
+        inOrder.verify(userRepository).saveAllAndFlush(argThat(users -> {
+            List<User> imported = (List<User>) users;
+            return imported.size() == 2
+                    && imported.stream().allMatch(user -> user.getId() == null
+                    && user.getRole() == Role.USER
+                    && user.getPassword().equals("encodedPassword"));
+        }));
+        inOrder.verify(usernameFilter).add("first@email.com");
+        inOrder.verify(usernameFilter).add("second@email.com");
+    }
+
+    @Test
+    void shouldNotRecordImportedUsernamesWhenSaveFails() {
+
+        AdminUserImportRequest request = UserTestDataProvider.adminUserImportRequest("first@email.com", "second@email.com");
+
+        when(passwordEncoder.encodeAll(anyList())).thenReturn(List.of("encodedPassword", "encodedPassword"));
+        when(userRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThatThrownBy(() -> adminUserService.importUsers(request))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(usernameFilter, never()).add(any());
     }
 
     @Test
@@ -117,8 +270,7 @@ public class AdminUserServiceTest {
         AdminUserResponse response =
                 new AdminUserResponse(user.getId(), user.getUsername(), user.getName(), user.getRole());
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(adminUserMapper.toAdminUserResponse(user)).thenReturn(response);
+        when(userRepository.findAdminUserById(user.getId())).thenReturn(Optional.of(response));
 
         AdminUserResponse result = adminUserService.getUserById(user.getId());
 
@@ -128,8 +280,8 @@ public class AdminUserServiceTest {
         assertThat(result.name()).isEqualTo(response.name());
         assertThat(result.role()).isEqualTo(response.role());
 
-        verify(userRepository).findById(user.getId());
-        verify(adminUserMapper).toAdminUserResponse(user);
+        verify(userRepository).findAdminUserById(user.getId());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -137,13 +289,13 @@ public class AdminUserServiceTest {
 
         long nonExistingUserId = 99L;
 
-        when(userRepository.findById(nonExistingUserId)).thenReturn(Optional.empty());
+        when(userRepository.findAdminUserById(nonExistingUserId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> adminUserService.getUserById(nonExistingUserId))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("User not found with id: " + nonExistingUserId);
 
-        verify(userRepository).findById(nonExistingUserId);
+        verify(userRepository).findAdminUserById(nonExistingUserId);
     }
 
     @Test
@@ -174,6 +326,7 @@ public class AdminUserServiceTest {
          verify(userRepository).findById(user.getId());
          verify(userRepository).save(any(User.class));
          verify(adminUserMapper).toAdminUserResponse(updatedUser);
+         verify(clusterEventBus).publish(ClusterEvent.userUpdated(user.getId()));
     }
 
     @Test
@@ -225,22 +378,21 @@ public class AdminUserServiceTest {
     }
 
     @Test
-    void shouldThrowUsernameAlreadyExistsWhenPartialUpdateCalledWithExistentUsername() {
+    void shouldUpdateWithoutExistenceCheckAndPropagateUniqueViolationWhenPartialUpdateCalledWithExistentUsername() {
 
         User user = UserTestDataProvider.user(1L);
 
         AdminUserUpdateRequest updateRequest = UserTestDataProvider.adminUserUpdateRequest();
 
-        when(userRepository.existsByUsername(updateRequest.username()))
-                .thenThrow(new UsernameAlreadyExistsException("Username already exists"));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_username"));
 
         assertThatThrownBy(() -> adminUserService.partialUpdate(user.getId(), updateRequest))
-                .isInstanceOf(UsernameAlreadyExistsException.class)
-                .hasMessage("Username already exists");
+                .isInstanceOf(DataIntegrityViolationException.class);
 
-        verify(userRepository).existsByUsername(updateRequest.username());
-        verify(userRepository, never()).findById(anyLong());
-        verify(userRepository, never()).save(any(User.class));
+        verify(usernameFilter, never()).isTaken(any());
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userRepository).save(any(User.class));
     }
 
     @Test
@@ -271,6 +423,8 @@ public class AdminUserServiceTest {
 
         verify(userRepository).findById(user.getId());
         verify(userRepository).delete(eq(user));
+        verify(clusterEventBus).publish(ClusterEvent.userDeleted(user.getId()));
+        verify(accessTokenRevocations).revokeAll(user.getId());
     }
 
     @Test
@@ -299,6 +453,7 @@ public class AdminUserServiceTest {
 
         verify(userRepository).findById(user.getId());
         verify(refreshTokenService).revokeAllTokensForUser(eq(user));
+        verify(accessTokenRevocations).revokeAll(user.getId());
     }
 
     @Test
@@ -314,4 +469,9 @@ public class AdminUserServiceTest {
 
         verify(userRepository).findById(nonExistingUserId);
     }
+
+    private static AdminUserSummaryResponse summary(User user) {
+
+        return new AdminUserSummaryResponse(user.getId(), user.getUsername(), user.getName(), user.getRole());
+    }
 }
@@ -1,7 +1,9 @@
 package com.benjamerc.spring_security_course.users.service;
 
-import com.benjamerc.spring_security_course.authentication.exception.UsernameAlreadyExistsException;
 import com.benjamerc.spring_security_course.authentication.security.RefreshTokenService;
+import com.benjamerc.spring_security_course.security.core.AccessTokenRevocations;
+import com.benjamerc.spring_security_course.shared.event.ClusterEvent;
+import com.benjamerc.spring_security_course.shared.event.ClusterEventBus;
 import com.benjamerc.spring_security_course.security.core.CustomUserDetails;
 import com.benjamerc.spring_security_course.users.UserTestDataProvider;
 import com.benjamerc.spring_security_course.users.dto.request.UserPartialUpdateRequest;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Optional;
 
@@ -35,6 +38,15 @@ public class UserServiceTest {
     @Mock
     private RefreshTokenService refreshTokenService;
 
+    @Mock
+    private AccessTokenRevocations accessTokenRevocations;
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
+    @Mock
+    private UsernameFilter usernameFilter;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -46,8 +58,7 @@ public class UserServiceTest {
         UserProfileResponse profileResponse =
                 new UserProfileResponse(userDetails.getUsername(), userDetails.getUser().getName());
 
-        when(userRepository.findById(userDetails.getUser().getId())).thenReturn(Optional.of(userDetails.getUser()));
-        when(userMapper.toUserProfileResponse(userDetails.getUser())).thenReturn(profileResponse);
+        when(userRepository.findProfileById(userDetails.getUser().getId())).thenReturn(Optional.of(profileResponse));
 
         UserProfileResponse result = userService.userProfile(userDetails);
 
@@ -55,8 +66,9 @@ public class UserServiceTest {
         assertThat(result.name()).isEqualTo(userDetails.getUser().getName());
         assertThat(result.username()).isEqualTo(userDetails.getUsername());
 
-        verify(userRepository).findById(userDetails.getUser().getId());
-        verify(userMapper).toUserProfileResponse(userDetails.getUser());
+        verify(userRepository).findProfileById(userDetails.getUser().getId());
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(userMapper);
     }
 
     @Test
@@ -64,13 +76,13 @@ public class UserServiceTest {
 
         CustomUserDetails userDetails = UserTestDataProvider.testUser(99L);
 
-        when(userRepository.findById(userDetails.getUser().getId())).thenReturn(Optional.empty());
+        when(userRepository.findProfileById(userDetails.getUser().getId())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.userProfile(userDetails))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("User not found with id: " + userDetails.getUser().getId());
 
-        verify(userRepository).findById(userDetails.getUser().getId());
+        verify(userRepository).findProfileById(userDetails.getUser().getId());
     }
 
     @Test
@@ -97,6 +109,7 @@ public class UserServiceTest {
         verify(userRepository).findById(userDetails.getUser().getId());
         verify(userRepository).save(any(User.class));
         verify(userMapper).toUserPartialUpdateResponse(any(User.class));
+        verify(clusterEventBus).publish(ClusterEvent.userUpdated(userDetails.getUser().getId()));
     }
 
     @Test
@@ -137,21 +150,20 @@ public class UserServiceTest {
     }
 
     @Test
-    void shouldThrowUsernameAlreadyExistsWhenUpdateProfileCalledWithExistingUsername() {
+    void shouldUpdateWithoutExistenceCheckAndPropagateUniqueViolationWhenUpdateProfileCalledWithExistingUsername() {
 
         CustomUserDetails userDetails = UserTestDataProvider.testUser(1L);
         UserPartialUpdateRequest updateRequest = UserTestDataProvider.userPartialUpdateRequest();
 
-        when(userRepository.existsByUsername(updateRequest.username()))
-                .thenReturn(true);
+        when(userRepository.findById(userDetails.getUser().getId())).thenReturn(Optional.of(userDetails.getUser()));
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_username"));
 
         assertThatThrownBy(() -> userService.updateProfile(userDetails, updateRequest))
-                .isInstanceOf(UsernameAlreadyExistsException.class)
-                .hasMessage("Username already exists");
+                .isInstanceOf(DataIntegrityViolationException.class);
 
-        verify(userRepository).existsByUsername(updateRequest.username());
-        verify(userRepository, never()).findById(anyLong());
-        verify(userRepository, never()).save(any(User.class));
+        verify(usernameFilter, never()).isTaken(any());
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userRepository).save(any(User.class));
     }
 
     @Test
@@ -166,6 +178,8 @@ public class UserServiceTest {
 
         verify(userRepository).findById(userDetails.getUser().getId());
         verify(userRepository).delete(eq(userDetails.getUser()));
+        verify(clusterEventBus).publish(ClusterEvent.userDeleted(userDetails.getUser().getId()));
+        verify(accessTokenRevocations).revokeAll(userDetails.getUser().getId());
     }
 
     @Test
@@ -194,6 +208,7 @@ public class UserServiceTest {
 
         verify(userRepository).findById(userDetails.getUser().getId());
         verify(refreshTokenService).revokeAllTokensForUser(eq(userDetails.getUser()));
+        verify(accessTokenRevocations).revokeAll(userDetails.getUser().getId());
     }
 
     @Test
@@ -0,0 +1,145 @@
+package com.benjamerc.spring_security_course.users.service;
+
+import com.benjamerc.spring_security_course.users.config.UsernameFilterProperties;
+import com.benjamerc.spring_security_course.users.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UsernameFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UsernameFilter usernameFilter;
+
+    @BeforeEach
+    void setup() {
+
+        UsernameFilterProperties properties = new UsernameFilterProperties();
+        properties.setExpectedInsertions(1000);
+        properties.setFalsePositiveProbability(0.01);
+        properties.setRebuildInterval(Duration.ofHours(1));
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        usernameFilter = new UsernameFilter(userRepository, properties, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void shouldAnswerAbsentWithoutQueryingDatabase() {
+
+        rebuildWith("taken@email.com");
+
+        boolean result = usernameFilter.isTaken("free@email.com");
+
+        assertThat(result).isFalse();
+        assertThat(meterRegistry.get("users.username_filter.lookups").tag("result", "absent").counter().count()).isEqualTo(1);
+
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    void shouldConfirmPossibleHitAgainstDatabase() {
+
+        rebuildWith("taken@email.com");
+
+        when(userRepository.existsByUsername("taken@email.com")).thenReturn(true);
+
+        boolean result = usernameFilter.isTaken("taken@email.com");
+
+        assertThat(result).isTrue();
+        assertThat(meterRegistry.get("users.username_filter.lookups").tag("result", "present").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountFalsePositiveWhenDatabaseDoesNotConfirmHit() {
+
+        rebuildWith("taken@email.com");
+
+        when(userRepository.existsByUsername("taken@email.com")).thenReturn(false);
+
+        boolean result = usernameFilter.isTaken("taken@email.com");
+
+        assertThat(result).isFalse();
+        assertThat(meterRegistry.get("users.username_filter.lookups").tag("result", "false_positive").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotQueryDatabaseForNullOrBlankUsername() {
+
+        assertThat(usernameFilter.isTaken(null)).isFalse();
+        assertThat(usernameFilter.isTaken(" ")).isFalse();
+
+        verify(userRepository, never()).existsByUsername(any());
+    }
+
+    @Test
+    void shouldRecognizeUsernamesAddedAfterRebuild() {
+
+        rebuildWith();
+
+        usernameFilter.add("new@email.com");
+
+        when(userRepository.existsByUsername("new@email.com")).thenReturn(true);
+
+        assertThat(usernameFilter.isTaken("new@email.com")).isTrue();
+    }
+
+    @Test
+    void shouldNeverReportLoadedUsernameAsAbsent() {
+
+        String[] usernames = IntStream.range(0, 1000)
+                .mapToObj(i -> "user" + i + "@email.com")
+                .toArray(String[]::new);
+
+        rebuildWith(usernames);
+
+        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+
+        assertThat(usernames).allMatch(usernameFilter::isTaken);
+    }
+
+    @Test
+    void shouldKeepObservedFalsePositiveRateNearConfiguredProbability() {
+
+        rebuildWith(IntStream.range(0, 1000)
+                .mapToObj(i -> "user" + i + "@email.com")
+                .toArray(String[]::new));
+
+        IntStream.range(0, 10_000).forEach(i -> usernameFilter.isTaken("other" + i + "@email.com"));
+
+        double observed = meterRegistry.get("users.username_filter.lookups").tag("result", "false_positive").counter().count() / 10_000;
+
+        assertThat(observed).isLessThan(0.03);
+        assertThat(meterRegistry.get("users.username_filter.expected_false_positive_probability").gauge().value()).isLessThan(0.01);
+        assertThat(meterRegistry.get("users.username_filter.memory").gauge().value()).isGreaterThan(0);
+    }
+
+    private void rebuildWith(String... usernames) {
+
+        when(userRepository.count()).thenReturn((long) usernames.length);
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of(usernames));
+
+        usernameFilter.rebuild();
+    }
+}